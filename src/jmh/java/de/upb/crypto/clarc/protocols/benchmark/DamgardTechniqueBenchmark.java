@@ -0,0 +1,75 @@
+package de.upb.crypto.clarc.protocols.benchmark;
+
+import de.upb.crypto.clarc.protocols.damgardtechnique.DamgardTechnique;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.craco.commitment.HashThenCommitCommitmentScheme;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentSchemePublicParametersGen;
+import de.upb.crypto.math.hash.impl.SHA256HashFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link DamgardTechnique} on top of a generalized Schnorr protocol, using a hash-then-commit Pedersen
+ * commitment.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DamgardTechniqueBenchmark {
+
+    @State(Scope.Thread)
+    public static class DamgardState extends SchnorrBenchmarkState {
+        DamgardTechnique damgardProver;
+        DamgardTechnique damgardVerifier;
+        Announcement[] announcements;
+        Challenge challenge;
+        Response[] responses;
+
+        @Setup(Level.Trial)
+        public void setUpDamgard() {
+            PedersenCommitmentScheme pedersenCommitmentScheme = new PedersenCommitmentScheme(
+                    new PedersenCommitmentSchemePublicParametersGen().setup(260, 1, false));
+            HashThenCommitCommitmentScheme commitmentScheme =
+                    new HashThenCommitCommitmentScheme(pedersenCommitmentScheme, new SHA256HashFunction());
+            damgardProver = new DamgardTechnique(protocolForProver, commitmentScheme);
+            damgardVerifier = new DamgardTechnique(protocolForVerifier, commitmentScheme);
+
+            announcements = damgardProver.generateAnnouncements();
+            challenge = damgardVerifier.chooseChallenge();
+            responses = damgardProver.generateResponses(challenge);
+        }
+    }
+
+    /**
+     * Responses can only be computed once per announcement, hence every invocation of {@link #respond} needs fresh
+     * announcements.
+     */
+    @State(Scope.Thread)
+    public static class AnnouncedState {
+        @Setup(Level.Invocation)
+        public void setUpAnnouncements(DamgardState state) {
+            state.damgardProver.generateAnnouncements();
+        }
+    }
+
+    @Benchmark
+    public Announcement[] announce(DamgardState state) {
+        return state.damgardProver.generateAnnouncements();
+    }
+
+    @Benchmark
+    public Response[] respond(DamgardState state, AnnouncedState announced) {
+        return state.damgardProver.generateResponses(state.challenge);
+    }
+
+    @Benchmark
+    public boolean verify(DamgardState state) {
+        return state.damgardVerifier.verify(state.announcements, state.challenge, state.responses);
+    }
+}
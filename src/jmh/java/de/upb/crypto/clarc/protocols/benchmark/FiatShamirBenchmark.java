@@ -0,0 +1,43 @@
+package de.upb.crypto.clarc.protocols.benchmark;
+
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
+import de.upb.crypto.math.hash.impl.SHA256HashFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks proving and verifying with the {@link FiatShamirHeuristic} on top of a generalized Schnorr protocol.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FiatShamirBenchmark {
+
+    @State(Scope.Thread)
+    public static class FiatShamirState extends SchnorrBenchmarkState {
+        FiatShamirHeuristic fiatShamirForProver;
+        FiatShamirHeuristic fiatShamirForVerifier;
+        FiatShamirProof proof;
+
+        @Setup(Level.Trial)
+        public void setUpFiatShamir() {
+            fiatShamirForProver = new FiatShamirHeuristic(protocolForProver, new SHA256HashFunction());
+            fiatShamirForVerifier = new FiatShamirHeuristic(protocolForVerifier, new SHA256HashFunction());
+            proof = fiatShamirForProver.prove();
+        }
+    }
+
+    @Benchmark
+    public FiatShamirProof prove(FiatShamirState state) {
+        return state.fiatShamirForProver.prove();
+    }
+
+    @Benchmark
+    public boolean verify(FiatShamirState state) {
+        return state.fiatShamirForVerifier.verify(state.proof);
+    }
+}
@@ -0,0 +1,57 @@
+package de.upb.crypto.clarc.protocols.benchmark;
+
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirSignatureScheme;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirSignature;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirSigningKey;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirVerificationKey;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocolProvider;
+import de.upb.crypto.craco.common.MessageBlock;
+import de.upb.crypto.craco.common.RingElementPlainText;
+import de.upb.crypto.math.hash.impl.SHA256HashFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks signing and verifying with the {@link FiatShamirSignatureScheme} on top of a generalized Schnorr
+ * protocol.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FiatShamirSignatureBenchmark {
+
+    @State(Scope.Thread)
+    public static class SignatureState extends SchnorrBenchmarkState {
+        FiatShamirSignatureScheme scheme;
+        FiatShamirSigningKey signingKey;
+        FiatShamirVerificationKey verificationKey;
+        MessageBlock message;
+        FiatShamirSignature signature;
+
+        @Setup(Level.Trial)
+        public void setUpSignatureScheme() {
+            scheme = new FiatShamirSignatureScheme(new GeneralizedSchnorrProtocolProvider(zp),
+                    new SHA256HashFunction());
+            signingKey = new FiatShamirSigningKey(protocolForProver.getProblems(), protocolForProver.getWitnesses());
+            verificationKey = new FiatShamirVerificationKey(protocolForVerifier.getProblems());
+            message = new MessageBlock(new RingElementPlainText[]{
+                    new RingElementPlainText(zp.getUniformlyRandomElement()),
+                    new RingElementPlainText(zp.getUniformlyRandomElement())
+            });
+            signature = scheme.sign(message, signingKey);
+        }
+    }
+
+    @Benchmark
+    public FiatShamirSignature sign(SignatureState state) {
+        return state.scheme.sign(state.message, state.signingKey);
+    }
+
+    @Benchmark
+    public Boolean verify(SignatureState state) {
+        return state.scheme.verify(state.message, state.signature, state.verificationKey);
+    }
+}
@@ -0,0 +1,61 @@
+package de.upb.crypto.clarc.protocols.benchmark;
+
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the three moves of the {@link GeneralizedSchnorrProtocol}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneralizedSchnorrBenchmark {
+
+    @State(Scope.Thread)
+    public static class ProtocolState extends SchnorrBenchmarkState {
+        Announcement[] announcements;
+        Challenge challenge;
+        Response[] responses;
+
+        @Setup(Level.Trial)
+        public void setUpTranscript() {
+            announcements = protocolForProver.generateAnnouncements();
+            challenge = protocolForVerifier.chooseChallenge();
+            responses = protocolForProver.generateResponses(challenge);
+        }
+    }
+
+    /**
+     * Responses can only be computed once per announcement, hence every invocation of {@link #respond} needs fresh
+     * announcements.
+     */
+    @State(Scope.Thread)
+    public static class AnnouncedState {
+        @Setup(Level.Invocation)
+        public void setUpAnnouncements(ProtocolState state) {
+            state.protocolForProver.generateAnnouncements();
+        }
+    }
+
+    @Benchmark
+    public Announcement[] announce(ProtocolState state) {
+        return state.protocolForProver.generateAnnouncements();
+    }
+
+    @Benchmark
+    public Response[] respond(ProtocolState state, AnnouncedState announced) {
+        return state.protocolForProver.generateResponses(state.challenge);
+    }
+
+    @Benchmark
+    public boolean verify(ProtocolState state) {
+        return state.protocolForVerifier.verify(state.announcements, state.challenge, state.responses);
+    }
+}
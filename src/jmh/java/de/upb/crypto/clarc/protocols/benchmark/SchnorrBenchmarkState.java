@@ -0,0 +1,55 @@
+package de.upb.crypto.clarc.protocols.benchmark;
+
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GenSchnorrTestdataProvider;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrPublicParameter;
+import de.upb.crypto.math.factory.BilinearGroup;
+import de.upb.crypto.math.interfaces.structures.Group;
+import de.upb.crypto.math.structures.zn.Zp;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Common parameters of all benchmarks: a generalized Schnorr statement with n witnesses and m equations over the
+ * source groups of a bilinear group of the given type. The statement is created by {@link GenSchnorrTestdataProvider}.
+ */
+@State(Scope.Benchmark)
+public class SchnorrBenchmarkState {
+
+    /**
+     * Number of witnesses
+     */
+    @Param({"1", "4", "16"})
+    public int n;
+
+    /**
+     * Number of equations
+     */
+    @Param({"1", "2", "4"})
+    public int m;
+
+    @Param({"TYPE_1", "TYPE_3"})
+    public String groupType;
+
+    protected Zp zp;
+    protected GeneralizedSchnorrProtocol protocolForProver;
+    protected GeneralizedSchnorrProtocol protocolForVerifier;
+
+    @Setup(Level.Trial)
+    public void setUpStatement() {
+        GenSchnorrTestdataProvider provider = new GenSchnorrTestdataProvider();
+        Group[] sourceGroups = provider.generateGenSchnorrGroups(BilinearGroup.Type.valueOf(groupType), false);
+        // Equation j is over G_1 or G_2 alternately
+        Group[] groups = new Group[m];
+        for (int j = 0; j < m; j++) {
+            groups[j] = sourceGroups[j % sourceGroups.length];
+        }
+        zp = provider.generateGenSchnorrZPGroup(groups[0]);
+        protocolForProver = provider.getGenSchorrProtocol(m, n, groups);
+        protocolForVerifier = new GeneralizedSchnorrProtocol(protocolForProver.getProblems(), null,
+                (GeneralizedSchnorrPublicParameter) protocolForProver.getPublicParameters());
+    }
+}
@@ -0,0 +1,26 @@
+package de.upb.crypto.clarc.protocols.arguments;
+
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+
+/**
+ * An {@link InteractiveThreeWayAoK} where challenge and responses of an accepting transcript uniquely determine the
+ * announcements.
+ * <p>
+ * This allows to transmit only challenge and responses, e.g. in compact non-interactive proofs. The verifier
+ * recomputes the announcements and checks that they are consistent with the challenge instead.
+ */
+public interface AnnouncementRecoverableThreeWayAoK extends InteractiveThreeWayAoK {
+
+    /**
+     * Computes the (unique) announcements that form an accepting transcript together with the given challenge and
+     * responses.
+     *
+     * @param challenge the challenge of the transcript
+     * @param responses the responses of the transcript
+     * @return announcements such that {@link #verify(Announcement[], Challenge, Response[])} accepts for the given
+     * challenge and responses
+     */
+    Announcement[] recomputeAnnouncements(Challenge challenge, Response[] responses);
+}
@@ -0,0 +1,86 @@
+package de.upb.crypto.clarc.protocols.arguments;
+
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.clarc.protocols.simulator.Transcript;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * An {@link InteractiveThreeWayAoK} whose verifier is able to check many transcripts at once.
+ * <p>
+ * {@link #verifyBatch(List)} accepts iff (except with negligible probability) every single transcript would be
+ * accepted by {@link InteractiveThreeWayAoK#verify(Announcement[], Challenge, Response[])}. It only yields a single
+ * accept/reject decision. In case a batch is rejected, {@link #findInvalidTranscripts(List)} pinpoints the transcripts
+ * responsible for the rejection.
+ */
+public interface BatchVerifiableThreeWayAoK extends InteractiveThreeWayAoK {
+
+    /**
+     * Verifies all given transcripts together.
+     *
+     * @param transcripts the transcripts to check
+     * @return true iff all transcripts are valid (with overwhelming probability), false otherwise
+     */
+    boolean verifyBatch(List<? extends Transcript> transcripts);
+
+    /**
+     * Determines the invalid transcripts of the given list.
+     * <p>
+     * The list is checked via {@link #verifyBatch(List)} first. Rejected (sub-)batches are split in halves until the
+     * invalid transcripts are isolated, which are finally checked with
+     * {@link InteractiveThreeWayAoK#verify(Announcement[], Challenge, Response[])}. Hence, the overhead compared to a
+     * single batch check is small if only few transcripts are invalid.
+     *
+     * @param transcripts the transcripts to check
+     * @return the (ascending) indices of the invalid transcripts within {@code transcripts}. The list is empty iff
+     * all transcripts are valid.
+     */
+    default List<Integer> findInvalidTranscripts(List<? extends Transcript> transcripts) {
+        List<Integer> invalid = new ArrayList<>();
+        Deque<int[]> ranges = new ArrayDeque<>();
+        if (!transcripts.isEmpty()) {
+            ranges.push(new int[]{0, transcripts.size()});
+        }
+
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int from = range[0];
+            int to = range[1];
+            if (to - from == 1) {
+                Transcript transcript = transcripts.get(from);
+                boolean isValid;
+                try {
+                    isValid = verify(transcript.getAnnouncements(), transcript.getChallenge(),
+                            transcript.getResponses());
+                } catch (RuntimeException e) {
+                    isValid = false;
+                }
+                if (!isValid) {
+                    invalid.add(from);
+                }
+                continue;
+            }
+
+            boolean batchIsValid;
+            try {
+                batchIsValid = verifyBatch(transcripts.subList(from, to));
+            } catch (RuntimeException e) {
+                batchIsValid = false;
+            }
+            if (!batchIsValid) {
+                int middle = from + (to - from) / 2;
+                ranges.push(new int[]{middle, to});
+                ranges.push(new int[]{from, middle});
+            }
+        }
+
+        Collections.sort(invalid);
+        return invalid;
+    }
+}
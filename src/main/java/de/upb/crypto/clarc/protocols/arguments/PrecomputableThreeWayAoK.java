@@ -0,0 +1,32 @@
+package de.upb.crypto.clarc.protocols.arguments;
+
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.PrecomputedAnnouncement;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+
+/**
+ * An {@link InteractiveThreeWayAoK} whose announcements do not depend on the witness, so they can be computed ahead of
+ * time (offline) and independently of the state of the protocol instance.
+ * <p>
+ * In contrast to {@link #generateAnnouncements()} and {@link #generateResponses(Challenge)}, the methods of this
+ * interface do not change the state of the protocol, hence they may be called concurrently.
+ */
+public interface PrecomputableThreeWayAoK extends InteractiveThreeWayAoK {
+
+    /**
+     * Computes fresh announcements together with the secret state needed to answer a challenge for them.
+     *
+     * @return a new, unused precomputed announcement
+     */
+    PrecomputedAnnouncement precomputeAnnouncement();
+
+    /**
+     * Computes the responses to the given challenge for the given precomputed announcement and marks it as used.
+     *
+     * @param challenge   the challenge
+     * @param precomputed an unused announcement precomputed by this protocol
+     * @return the responses
+     * @throws IllegalStateException if {@code precomputed} has already been used
+     */
+    Response[] generateResponses(Challenge challenge, PrecomputedAnnouncement precomputed);
+}
@@ -0,0 +1,72 @@
+package de.upb.crypto.clarc.protocols.arguments;
+
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.PrecomputedAnnouncement;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+
+/**
+ * A single run of the prover of a {@link PrecomputableThreeWayAoK}.
+ * <p>
+ * The protocol only holds the statement and the witness and is not changed by a session, so a single protocol instance
+ * can serve any number of concurrent sessions. The secret state of the run (e.g. the randomness of the announcements
+ * and the opening of commitments) is held by the session, which can answer exactly one challenge.
+ */
+public class ProverSession {
+
+    private final PrecomputableThreeWayAoK protocol;
+
+    private final PrecomputedAnnouncement precomputed;
+
+    /**
+     * Starts a session with fresh announcements.
+     *
+     * @param protocol the protocol to run
+     */
+    public ProverSession(PrecomputableThreeWayAoK protocol) {
+        this(protocol, protocol.precomputeAnnouncement());
+    }
+
+    /**
+     * Starts a session with announcements that were precomputed by the given protocol, e.g. taken from a pool.
+     *
+     * @param protocol    the protocol to run
+     * @param precomputed an unused announcement precomputed by {@code protocol}
+     */
+    public ProverSession(PrecomputableThreeWayAoK protocol, PrecomputedAnnouncement precomputed) {
+        if (precomputed.isUsed()) {
+            throw new IllegalArgumentException("The precomputed announcement has already been used");
+        }
+        this.protocol = protocol;
+        this.precomputed = precomputed;
+    }
+
+    public PrecomputableThreeWayAoK getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * @return the announcements of this session, which are sent to the verifier
+     */
+    public Announcement[] getAnnouncements() {
+        return precomputed.getAnnouncements();
+    }
+
+    /**
+     * Answers the challenge of the verifier and finishes this session.
+     *
+     * @param challenge the challenge chosen by the verifier
+     * @return the responses
+     * @throws IllegalStateException if this session has already answered a challenge
+     */
+    public Response[] generateResponses(Challenge challenge) {
+        return protocol.generateResponses(challenge, precomputed);
+    }
+
+    /**
+     * @return true iff this session has already answered a challenge
+     */
+    public boolean isFinished() {
+        return precomputed.isUsed();
+    }
+}
@@ -0,0 +1,336 @@
+package de.upb.crypto.clarc.protocols.damgardtechnique;
+
+import de.upb.crypto.clarc.protocols.arguments.BatchVerifiableThreeWayAoK;
+import de.upb.crypto.clarc.protocols.arguments.PrecomputableThreeWayAoK;
+import de.upb.crypto.clarc.protocols.arguments.SigmaProtocol;
+import de.upb.crypto.clarc.protocols.arguments.ZeroKnowledgeThreeWayAoK;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.PrecomputedAnnouncement;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.clarc.protocols.simulator.SigmaProtocolTranscript;
+import de.upb.crypto.clarc.protocols.simulator.Transcript;
+import de.upb.crypto.math.serialization.ObjectRepresentation;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.serialization.annotations.Represented;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Damgard's Technique for an arbitrary commitment to the announcements of the Sigma-Protocol (see
+ * {@link DamgardTechnique} and {@link HashDamgardTechnique}).
+ * <p>
+ * This class implements the parts of the technique that do not depend on the commitment: precomputed announcements
+ * for concurrent runs (see {@link de.upb.crypto.clarc.protocols.arguments.ProverSession}), verification of single and
+ * many sessions, and the restoring of messages. Subclasses provide the commitment, the verification of its opening and
+ * the message types.
+ *
+ * @param <O> type of the opening of a commitment
+ */
+public abstract class AbstractDamgardTechnique<O> implements ZeroKnowledgeThreeWayAoK, BatchVerifiableThreeWayAoK,
+        PrecomputableThreeWayAoK {
+
+    @Represented
+    protected SigmaProtocol protocol;
+
+    /**
+     * Executor that the commitment openings are checked on in {@link #verifyBatch(List)}, null to check them
+     * sequentially
+     */
+    private Executor executor = null;
+
+    /**
+     * @param protocol {@link SigmaProtocol} used in Damgard`s Technique
+     */
+    protected AbstractDamgardTechnique(SigmaProtocol protocol) {
+        this.protocol = protocol;
+    }
+
+    /**
+     * Constructor for subclasses that restore their fields from a representation.
+     */
+    protected AbstractDamgardTechnique() {
+    }
+
+    /**
+     * Commits to the given announcements of the Sigma-Protocol.
+     *
+     * @param announcements the announcements of the Sigma-Protocol
+     * @return the commitment, as the announcement of this protocol, together with its opening
+     */
+    protected abstract Commitment<O> commit(Announcement[] announcements);
+
+    /**
+     * @param commitment an announcement of this protocol, checked by {@link #checkMessages(Announcement[], Response[])}
+     * @param response   a response of this protocol, checked by {@link #checkMessages(Announcement[], Response[])}
+     * @return true iff the opening in the response opens the commitment to the announcements in the response
+     */
+    protected abstract boolean verifyOpening(Announcement commitment, Response response);
+
+    /**
+     * @param announcements the announcements of the Sigma-Protocol
+     * @param responses     the responses of the Sigma-Protocol
+     * @param opening       the opening of the commitment to the announcements
+     * @return the response of this protocol
+     */
+    protected abstract Response createResponse(Announcement[] announcements, Response[] responses, O opening);
+
+    /**
+     * @param response a response of this protocol
+     * @return the announcements of the Sigma-Protocol contained in the response
+     */
+    protected abstract Announcement[] getSigmaAnnouncements(Response response);
+
+    /**
+     * @param response a response of this protocol
+     * @return the responses of the Sigma-Protocol contained in the response
+     */
+    protected abstract Response[] getSigmaResponses(Response response);
+
+    /**
+     * @param representation the representation of a response, containing the opening
+     * @return the opening contained in the representation
+     */
+    protected abstract O recreateOpening(ObjectRepresentation representation);
+
+    /**
+     * @throws IllegalArgumentException if the messages are not a single announcement and a single response of this
+     *                                  protocol
+     */
+    protected abstract void checkMessages(Announcement[] announcements, Response[] responses);
+
+    @Override
+    public boolean isFulfilled() {
+        return protocol.isFulfilled();
+    }
+
+    /**
+     * Chooses the challenge for an announcement. The challenge is chosen by the underlying Sigma-protocol.
+     *
+     * @return Challenge for announcement.
+     */
+    @Override
+    public Challenge chooseChallenge() {
+        return protocol.chooseChallenge();
+    }
+
+    /**
+     * Precomputes announcements of the Sigma-Protocol and commits to them, without changing the state of this
+     * instance.
+     *
+     * @return the commitment to the precomputed announcements together with the secret state of the run
+     * @throws IllegalStateException if the Sigma-Protocol is not a {@link PrecomputableThreeWayAoK}
+     */
+    @Override
+    public DamgardPrecomputedAnnouncement<O> precomputeAnnouncement() {
+        PrecomputedAnnouncement sigmaAnnouncement = getPrecomputableProtocol().precomputeAnnouncement();
+        Commitment<O> commitment = commit(sigmaAnnouncement.getAnnouncements());
+        return new DamgardPrecomputedAnnouncement<>(this, sigmaAnnouncement, commitment.getAnnouncement(),
+                commitment.getOpening());
+    }
+
+    /**
+     * Computes the response for the given precomputed announcement without changing the state of this instance.
+     *
+     * @param challenge   the challenge chosen by the verifier
+     * @param precomputed an unused announcement precomputed by {@link #precomputeAnnouncement()} of this instance
+     * @return the response, containing the announcements of the Sigma-Protocol and the opening of their commitment
+     * @throws IllegalStateException if {@code precomputed} has already been used
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Response[] generateResponses(Challenge challenge, PrecomputedAnnouncement precomputed) {
+        if (!(precomputed instanceof DamgardPrecomputedAnnouncement)
+                || ((DamgardPrecomputedAnnouncement<?>) precomputed).getProtocol() != this) {
+            throw new IllegalArgumentException("The precomputed announcement does not belong to this protocol");
+        }
+        DamgardPrecomputedAnnouncement<O> damgardPrecomputed = (DamgardPrecomputedAnnouncement<O>) precomputed;
+        O opening = damgardPrecomputed.consume();
+        PrecomputedAnnouncement sigmaAnnouncement = damgardPrecomputed.getSigmaAnnouncement();
+        return new Response[]{createResponse(sigmaAnnouncement.getAnnouncements(),
+                getPrecomputableProtocol().generateResponses(challenge, sigmaAnnouncement), opening)};
+    }
+
+    private PrecomputableThreeWayAoK getPrecomputableProtocol() {
+        if (!(protocol instanceof PrecomputableThreeWayAoK)) {
+            throw new IllegalStateException("The Sigma-Protocol does not support precomputed announcements");
+        }
+        return (PrecomputableThreeWayAoK) protocol;
+    }
+
+    /**
+     * Verifies that the opening in the response opens the committed announcements to the announcements in the
+     * response and that the responses of the Sigma-Protocol match the given challenge.
+     *
+     * @param announcements commitment of the original announcements
+     * @param challenge     challenge for announcements
+     * @param responses     response corresponding to the given challenge
+     * @return true iff the commitment is opened correctly and the Sigma-Protocol accepts
+     */
+    @Override
+    public boolean verify(Announcement[] announcements, Challenge challenge, Response[] responses) {
+        checkMessages(announcements, responses);
+        boolean correctCommitment = verifyOpening(announcements[0], responses[0]);
+        boolean correctVerify = protocol.verify(getSigmaAnnouncements(responses[0]), challenge,
+                getSigmaResponses(responses[0]));
+        return correctCommitment && correctVerify;
+    }
+
+    /**
+     * Verifies many completed sessions together.
+     * <p>
+     * The commitment openings are checked first, one after another or concurrently on the executor set by
+     * {@link #setExecutor(Executor)}. Afterwards, the transcripts of the underlying
+     * Sigma-Protocol contained in the responses are checked with a single randomized batch check if the Sigma-Protocol
+     * is a {@link BatchVerifiableThreeWayAoK}, or one by one otherwise. If the batch is rejected,
+     * {@link #findInvalidTranscripts(List)} isolates the failing sessions.
+     *
+     * @param transcripts the sessions (commitment, challenge, response) to check
+     * @return true iff (with overwhelming probability) {@link #verify(Announcement[], Challenge, Response[])} accepts
+     * every transcript, false otherwise
+     */
+    @Override
+    public boolean verifyBatch(List<? extends Transcript> transcripts) {
+        if (transcripts == null) {
+            throw new IllegalArgumentException("The given list of transcripts must not be null");
+        }
+        for (Transcript transcript : transcripts) {
+            checkMessages(transcript.getAnnouncements(), transcript.getResponses());
+        }
+
+        if (!verifyOpenings(transcripts)) {
+            return false;
+        }
+
+        List<Transcript> sigmaTranscripts = new ArrayList<>(transcripts.size());
+        for (Transcript transcript : transcripts) {
+            Response response = transcript.getResponses()[0];
+            sigmaTranscripts.add(new SigmaProtocolTranscript(getSigmaAnnouncements(response),
+                    transcript.getChallenge(), getSigmaResponses(response), protocol));
+        }
+        if (protocol instanceof BatchVerifiableThreeWayAoK) {
+            return ((BatchVerifiableThreeWayAoK) protocol).verifyBatch(sigmaTranscripts);
+        }
+        return sigmaTranscripts.stream().allMatch(transcript -> protocol.verify(transcript.getAnnouncements(),
+                transcript.getChallenge(), transcript.getResponses()));
+    }
+
+    /**
+     * @return true iff the openings of all transcripts are correct
+     */
+    private boolean verifyOpenings(List<? extends Transcript> transcripts) {
+        if (executor == null) {
+            for (Transcript transcript : transcripts) {
+                if (!verifyOpening(transcript.getAnnouncements()[0], transcript.getResponses()[0])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(transcripts.size());
+        for (Transcript transcript : transcripts) {
+            futures.add(CompletableFuture.supplyAsync(() -> verifyOpening(transcript.getAnnouncements()[0],
+                    transcript.getResponses()[0]), executor));
+        }
+        try {
+            boolean result = true;
+            for (CompletableFuture<Boolean> future : futures) {
+                result &= future.join();
+            }
+            return result;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the executor that the commitment openings are checked on in {@link #verifyBatch(List)}, one task per
+     * transcript. By default (null), the openings are checked sequentially on the calling thread.
+     * <p>
+     * Setting an executor requires that the commitment of this protocol can be verified by several threads
+     * concurrently.
+     *
+     * @param executor the executor to use, or null for the default behavior
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * This method restores the serialized array of challenge
+     *
+     * @param representation of the challenge
+     * @return the restored challenge
+     */
+    @Override
+    public Challenge recreateChallenge(Representation representation) {
+        return protocol.recreateChallenge(representation);
+    }
+
+    @Override
+    public Challenge createChallengeFromByteArray(byte[] integer) {
+        return protocol.createChallengeFromByteArray(integer);
+    }
+
+    /**
+     * This method restores the serialized array of responses
+     *
+     * @param representation of the announcement array
+     * @return the restored responses array
+     */
+    @Override
+    public Response recreateResponse(Representation representation) {
+        ObjectRepresentation objRepr = representation.obj();
+
+        Announcement[] announcementInResponse = objRepr.get("announcements").list()
+                                                       .stream()
+                                                       .map(protocol::recreateAnnouncement)
+                                                       .toArray(Announcement[]::new);
+
+        Response[] responses = objRepr.get("responses").list()
+                                      .stream()
+                                      .map(protocol::recreateResponse)
+                                      .toArray(Response[]::new);
+
+        return createResponse(announcementInResponse, responses, recreateOpening(objRepr));
+    }
+
+    /**
+     * A commitment to announcements of the Sigma-Protocol together with its opening.
+     *
+     * @param <O> type of the opening
+     */
+    protected static final class Commitment<O> {
+        private final Announcement announcement;
+        private final O opening;
+
+        /**
+         * @param announcement the commitment, as the announcement of the Damgard protocol
+         * @param opening      the opening of the commitment
+         */
+        public Commitment(Announcement announcement, O opening) {
+            this.announcement = announcement;
+            this.opening = opening;
+        }
+
+        public Announcement getAnnouncement() {
+            return announcement;
+        }
+
+        public O getOpening() {
+            return opening;
+        }
+    }
+}
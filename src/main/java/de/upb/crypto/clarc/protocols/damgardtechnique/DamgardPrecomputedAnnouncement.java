@@ -0,0 +1,76 @@
+package de.upb.crypto.clarc.protocols.damgardtechnique;
+
+import de.upb.crypto.clarc.protocols.arguments.PrecomputableThreeWayAoK;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.PrecomputedAnnouncement;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Commitment to precomputed announcements of the underlying Sigma-Protocol of Damgard's Technique, together with the
+ * opening of the commitment (see {@link AbstractDamgardTechnique#precomputeAnnouncement()}).
+ * <p>
+ * Like the precomputed announcement of the Sigma-Protocol, it can only be used once.
+ *
+ * @param <O> type of the opening of the commitment
+ */
+public class DamgardPrecomputedAnnouncement<O> implements PrecomputedAnnouncement {
+
+    /**
+     * The protocol this announcement was precomputed by
+     */
+    private final PrecomputableThreeWayAoK protocol;
+
+    /**
+     * The precomputed announcement of the Sigma-Protocol
+     */
+    private final PrecomputedAnnouncement sigmaAnnouncement;
+
+    private final Announcement commitment;
+
+    private final O opening;
+
+    private final AtomicBoolean used = new AtomicBoolean(false);
+
+    DamgardPrecomputedAnnouncement(PrecomputableThreeWayAoK protocol, PrecomputedAnnouncement sigmaAnnouncement,
+                                   Announcement commitment, O opening) {
+        this.protocol = protocol;
+        this.sigmaAnnouncement = sigmaAnnouncement;
+        this.commitment = commitment;
+        this.opening = opening;
+    }
+
+    /**
+     * Marks this precomputed announcement as used.
+     *
+     * @return the opening of the commitment
+     * @throws IllegalStateException if this precomputed announcement has already been used
+     */
+    O consume() {
+        if (!used.compareAndSet(false, true)) {
+            throw new IllegalStateException("The precomputed announcement has already been used");
+        }
+        return opening;
+    }
+
+    PrecomputableThreeWayAoK getProtocol() {
+        return protocol;
+    }
+
+    PrecomputedAnnouncement getSigmaAnnouncement() {
+        return sigmaAnnouncement;
+    }
+
+    /**
+     * @return the commitment to the announcements of the Sigma-Protocol
+     */
+    @Override
+    public Announcement[] getAnnouncements() {
+        return new Announcement[]{commitment};
+    }
+
+    @Override
+    public boolean isUsed() {
+        return used.get();
+    }
+}
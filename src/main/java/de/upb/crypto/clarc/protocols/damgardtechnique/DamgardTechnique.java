@@ -1,9 +1,10 @@
 package de.upb.crypto.clarc.protocols.damgardtechnique;
 
+import de.upb.crypto.clarc.protocols.arguments.PrecomputableThreeWayAoK;
 import de.upb.crypto.clarc.protocols.arguments.SigmaProtocol;
-import de.upb.crypto.clarc.protocols.arguments.ZeroKnowledgeThreeWayAoK;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.PrecomputedAnnouncement;
 import de.upb.crypto.clarc.protocols.parameters.Response;
 import de.upb.crypto.craco.commitment.interfaces.CommitmentPair;
 import de.upb.crypto.craco.commitment.interfaces.CommitmentScheme;
@@ -18,6 +19,7 @@ import de.upb.crypto.math.serialization.annotations.Represented;
 import de.upb.crypto.math.serialization.annotations.RepresentedArray;
 
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * This class provides Damgard's Technique. Damgard's Technique is a construction to improve Sigma-Protocols in order to
@@ -34,11 +36,17 @@ import java.util.Arrays;
  * The result of Damgard's Technique is a 'Concurrent black-box zero knowledge three-way interactive argument of
  * knowledge'.
  * Therefore the announcement and Response are extended in such a way that they contain the needed information.
+ * <p>
+ * Many completed sessions can be checked together with {@link #verifyBatch(List)}.
+ * <p>
+ * {@link #generateAnnouncements()} and {@link #generateResponses(Challenge)} store the state of the current run in this
+ * instance. If the Sigma-Protocol is a {@link PrecomputableThreeWayAoK}, concurrent runs are supported by
+ * {@link #precomputeAnnouncement()} and {@link #generateResponses(Challenge, PrecomputedAnnouncement)} (see
+ * {@link de.upb.crypto.clarc.protocols.arguments.ProverSession}), which keep the state of a run outside of this
+ * instance.
  */
-public class DamgardTechnique implements ZeroKnowledgeThreeWayAoK {
+public class DamgardTechnique extends AbstractDamgardTechnique<OpenValue> {
 
-    @Represented
-    private SigmaProtocol protocol;
     @Represented
     private CommitmentScheme commitmentScheme;
     @Represented
@@ -56,8 +64,7 @@ public class DamgardTechnique implements ZeroKnowledgeThreeWayAoK {
      *                         same {@link CommitmentScheme} and {@link CommitmentSchemePublicParameters}
      */
     public DamgardTechnique(SigmaProtocol protocol, CommitmentScheme commitmentScheme) {
-        super();
-        this.protocol = protocol;
+        super(protocol);
         this.commitmentScheme = commitmentScheme;
     }
 
@@ -81,11 +88,6 @@ public class DamgardTechnique implements ZeroKnowledgeThreeWayAoK {
         return AnnotatedRepresentationUtil.putAnnotatedRepresentation(this);
     }
 
-    @Override
-    public boolean isFulfilled() {
-        return protocol.isFulfilled();
-    }
-
     /**
      * Generates the announcements for a prover and returns the commit-value for the announcements.
      * This is an algorithm for the creation of an announcement that chooses the randomness used internally. The
@@ -105,16 +107,6 @@ public class DamgardTechnique implements ZeroKnowledgeThreeWayAoK {
     }
 
 
-    /**
-     * Chooses the challenge for an announcement. The challenge is chosen by the underlying Sigma-protocol.
-     *
-     * @return Challenge for announcement.
-     */
-    @Override
-    public Challenge chooseChallenge() {
-        return protocol.chooseChallenge();
-    }
-
     /***
      * This algorithm generates an response.
      * @param challenge the challenge chosen by the verifier
@@ -126,34 +118,47 @@ public class DamgardTechnique implements ZeroKnowledgeThreeWayAoK {
                 (challenge), commitPair.getOpenValue())};
     }
 
-    /**
-     * This algorithm verifies that the opened message of the committed value equals the uncommitted announcements and
-     * that the response matches the given challenge. Only when both cases are true, the algorithm returns true; else
-     * false.
-     *
-     * @param announcements commitvalue for original announcements
-     * @param challenge     challenge for announcements
-     * @param responses     response corresponding to the given challenge
-     *
-     * @return return true only if the opened message of the committed value equals the uncommitted announcements and
-     *         that the response matches the given challenge; else: false.
-     */
     @Override
-    public boolean verify(Announcement[] announcements, Challenge challenge, Response[] responses) {
+    protected Commitment<OpenValue> commit(Announcement[] announcements) {
+        CommitmentPair commitment = commitmentScheme.commit(getAnnouncementPlainText(announcements));
+        return new Commitment<>(new DamgardAnnouncement(commitment.getCommitmentValue()), commitment.getOpenValue());
+    }
+
+    @Override
+    protected boolean verifyOpening(Announcement commitment, Response response) {
+        DamgardResponse damgardResponse = (DamgardResponse) response;
+        return commitmentScheme.verify(((DamgardAnnouncement) commitment).getCommitmentValue(),
+                damgardResponse.getD(), getAnnouncementPlainText(damgardResponse.getAnnouncements()));
+    }
+
+    @Override
+    protected Response createResponse(Announcement[] announcements, Response[] responses, OpenValue opening) {
+        return new DamgardResponse(announcements, responses, opening);
+    }
+
+    @Override
+    protected Announcement[] getSigmaAnnouncements(Response response) {
+        return ((DamgardResponse) response).getAnnouncements();
+    }
+
+    @Override
+    protected Response[] getSigmaResponses(Response response) {
+        return ((DamgardResponse) response).getResponses();
+    }
+
+    @Override
+    protected OpenValue recreateOpening(ObjectRepresentation representation) {
+        return (OpenValue) representation.get("d").repr().recreateRepresentable();
+    }
+
+    @Override
+    protected void checkMessages(Announcement[] announcements, Response[] responses) {
         if (announcements.length != 1 || !(announcements[0] instanceof DamgardAnnouncement)) {
             throw new IllegalArgumentException("The announcement must be a Damgard announcement of size 1!");
         }
         if (responses.length != 1 || (!(responses[0] instanceof DamgardResponse))) {
             throw new IllegalArgumentException("The response must be a Damgard response of size 1");
         }
-        DamgardAnnouncement damgardAnnouncement = (DamgardAnnouncement) announcements[0];
-        DamgardResponse damgardResponse = (DamgardResponse) responses[0];
-        boolean correctCommitment = commitmentScheme.verify(damgardAnnouncement.getCommitmentValue(), damgardResponse
-                        .getD(),
-                getAnnouncementPlainText(damgardResponse.getAnnouncements()));
-        boolean correctVerify = protocol.verify(damgardResponse.getAnnouncements(), challenge,
-                damgardResponse.getResponses());
-        return correctCommitment && correctVerify;
     }
 
     /**
@@ -168,48 +173,6 @@ public class DamgardTechnique implements ZeroKnowledgeThreeWayAoK {
         return new DamgardAnnouncement(representation);
     }
 
-    /**
-     * This method restores the serialized array of challenge
-     *
-     * @param representation of the challenge
-     *
-     * @return the restored challenge
-     */
-    @Override
-    public Challenge recreateChallenge(Representation representation) {
-        return this.protocol.recreateChallenge(representation);
-    }
-
-    @Override
-    public Challenge createChallengeFromByteArray(byte[] integer) {
-        return protocol.createChallengeFromByteArray(integer);
-    }
-
-    /**
-     * This method restores the serialized array of responses
-     *
-     * @param representation of the announcement array
-     *
-     * @return the restored responses array
-     */
-    @Override
-    public Response recreateResponse(Representation representation) {
-        ObjectRepresentation objRepr = representation.obj();
-
-        Announcement[] announcementInResponse = objRepr.get("announcements").list()
-                                                       .stream()
-                                                       .map(protocol::recreateAnnouncement)
-                                                       .toArray(Announcement[]::new);
-
-        Response[] responses = objRepr.get("responses").list()
-                                      .stream()
-                                      .map(protocol::recreateResponse)
-                                      .toArray(Response[]::new);
-
-        OpenValue d = (OpenValue) objRepr.get("d").repr().recreateRepresentable();
-        return new DamgardResponse(announcementInResponse, responses, d);
-    }
-
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -0,0 +1,59 @@
+package de.upb.crypto.clarc.protocols.damgardtechnique;
+
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.math.interfaces.hash.ByteAccumulator;
+import de.upb.crypto.math.serialization.ByteArrayRepresentation;
+import de.upb.crypto.math.serialization.Representation;
+
+import java.util.Arrays;
+
+/**
+ * The HashDamgardAnnouncement is the hash commitment of the announcements of the original Sigma-Protocol
+ * (see {@link HashDamgardTechnique}).
+ */
+class HashDamgardAnnouncement implements Announcement {
+
+    private final byte[] commitment;
+
+    /**
+     * Constructor for HashDamgardAnnouncement
+     *
+     * @param commitment hash commitment of the announcements
+     */
+    public HashDamgardAnnouncement(byte[] commitment) {
+        this.commitment = commitment.clone();
+    }
+
+    public HashDamgardAnnouncement(Representation representation) {
+        this(representation.bytes().get());
+    }
+
+    public byte[] getCommitment() {
+        return commitment.clone();
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        return new ByteArrayRepresentation(commitment);
+    }
+
+    @Override
+    public ByteAccumulator updateAccumulator(ByteAccumulator accumulator) {
+        accumulator.append(commitment);
+        return accumulator;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        HashDamgardAnnouncement that = (HashDamgardAnnouncement) o;
+        return Arrays.equals(commitment, that.commitment);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(commitment);
+    }
+}
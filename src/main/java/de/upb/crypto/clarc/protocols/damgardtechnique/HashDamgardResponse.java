@@ -0,0 +1,82 @@
+package de.upb.crypto.clarc.protocols.damgardtechnique;
+
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.math.serialization.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The HashDamgardResponse is used in {@link HashDamgardTechnique}. It consists of the original announcements, the
+ * responses of the original Sigma-Protocol and the randomness that opens the hash commitment of the announcements.
+ */
+class HashDamgardResponse implements Response {
+
+    private final Announcement[] announcements;
+    private final Response[] responses;
+    private final byte[] opening;
+
+    /**
+     * Constructor for a HashDamgardResponse
+     *
+     * @param announcements uncommitted, original announcements
+     * @param responses     responses for the given challenge
+     * @param opening       randomness of the hash commitment of the announcements
+     */
+    public HashDamgardResponse(Announcement[] announcements, Response[] responses, byte[] opening) {
+        this.announcements = announcements;
+        this.responses = responses;
+        this.opening = opening.clone();
+    }
+
+    public Announcement[] getAnnouncements() {
+        return announcements;
+    }
+
+    public Response[] getResponses() {
+        return responses;
+    }
+
+    public byte[] getOpening() {
+        return opening.clone();
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        ObjectRepresentation representation = new ObjectRepresentation();
+
+        List<Representation> representationOfAnnouncements = Arrays.stream(this.announcements)
+                .map(Representable::getRepresentation)
+                .collect(Collectors.toList());
+        representation.put("announcements", new ListRepresentation(representationOfAnnouncements));
+
+        List<Representation> representationOfResponses = Arrays.stream(this.responses)
+                .map(Representable::getRepresentation)
+                .collect(Collectors.toList());
+        representation.put("responses", new ListRepresentation(representationOfResponses));
+
+        representation.put("opening", new ByteArrayRepresentation(opening));
+        return representation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        HashDamgardResponse that = (HashDamgardResponse) o;
+        return Arrays.equals(announcements, that.announcements)
+                && Arrays.equals(responses, that.responses)
+                && Arrays.equals(opening, that.opening);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(announcements);
+        result = 31 * result + Arrays.hashCode(responses);
+        result = 31 * result + Arrays.hashCode(opening);
+        return result;
+    }
+}
@@ -0,0 +1,168 @@
+package de.upb.crypto.clarc.protocols.damgardtechnique;
+
+import de.upb.crypto.clarc.protocols.arguments.SigmaProtocol;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.StreamingHashAccumulator;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.math.hash.impl.SHA256HashFunction;
+import de.upb.crypto.math.interfaces.hash.ByteAccumulator;
+import de.upb.crypto.math.serialization.ObjectRepresentation;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.serialization.annotations.AnnotatedRepresentationUtil;
+
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Objects;
+
+/**
+ * Damgard's Technique (see {@link DamgardTechnique}) with a built-in hash commitment instead of a generic
+ * {@link de.upb.crypto.craco.commitment.interfaces.CommitmentScheme}.
+ * <p>
+ * The commitment to the announcements a_1, ..., a_n of the Sigma-Protocol is c = SHA-256(r, a_1, ..., a_n), where r is
+ * a random value of {@link #OPENING_LENGTH} bytes and the announcements are given by their unique byte representation.
+ * The commitment is opened by sending r together with the announcements in the response. Hence committing and
+ * verifying the opening costs a single hash evaluation instead of group operations. Binding follows from the collision
+ * resistance of SHA-256, hiding holds in the random oracle model.
+ * <p>
+ * Announcements and responses of this class can not be verified by a {@link DamgardTechnique} and vice versa.
+ * Concurrent runs are supported in the same way as by {@link DamgardTechnique}.
+ */
+public class HashDamgardTechnique extends AbstractDamgardTechnique<byte[]> {
+
+    /**
+     * Number of random bytes used to open a commitment
+     */
+    public static final int OPENING_LENGTH = 32;
+
+    private byte[] opening = null;
+    private Announcement[] announcements = null;
+
+    /**
+     * Constructor for a Sigma Protocol using Damgard's Technique with a hash commitment
+     *
+     * @param protocol {@link SigmaProtocol} used in Damgard`s Technique
+     */
+    public HashDamgardTechnique(SigmaProtocol protocol) {
+        super(protocol);
+    }
+
+    public HashDamgardTechnique(Representation representation) {
+        AnnotatedRepresentationUtil.restoreAnnotatedRepresentation(representation, this);
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        return AnnotatedRepresentationUtil.putAnnotatedRepresentation(this);
+    }
+
+    /**
+     * Generates the announcements of the Sigma-Protocol and returns the hash commitment of them. The announcements
+     * and the opening of the commitment are stored internally and will be used in the response.
+     *
+     * @return commitment of the generated announcements
+     */
+    @Override
+    public Announcement[] generateAnnouncements() {
+        announcements = protocol.generateAnnouncements();
+        Commitment<byte[]> commitment = commit(announcements);
+        opening = commitment.getOpening();
+
+        return new Announcement[]{commitment.getAnnouncement()};
+    }
+
+    @Override
+    protected Commitment<byte[]> commit(Announcement[] announcements) {
+        byte[] opening = chooseOpening();
+        return new Commitment<>(new HashDamgardAnnouncement(commit(opening, announcements)), opening);
+    }
+
+    private static byte[] chooseOpening() {
+        byte[] opening = new byte[OPENING_LENGTH];
+        new SecureRandom().nextBytes(opening);
+        return opening;
+    }
+
+    @Override
+    public Response[] generateResponses(Challenge challenge) {
+        return new Response[]{createResponse(announcements, protocol.generateResponses(challenge), opening)};
+    }
+
+    @Override
+    protected Response createResponse(Announcement[] announcements, Response[] responses, byte[] opening) {
+        return new HashDamgardResponse(announcements, responses, opening);
+    }
+
+    @Override
+    protected Announcement[] getSigmaAnnouncements(Response response) {
+        return ((HashDamgardResponse) response).getAnnouncements();
+    }
+
+    @Override
+    protected Response[] getSigmaResponses(Response response) {
+        return ((HashDamgardResponse) response).getResponses();
+    }
+
+    @Override
+    protected byte[] recreateOpening(ObjectRepresentation representation) {
+        return representation.get("opening").bytes().get();
+    }
+
+    @Override
+    protected void checkMessages(Announcement[] announcements, Response[] responses) {
+        if (announcements.length != 1 || !(announcements[0] instanceof HashDamgardAnnouncement)) {
+            throw new IllegalArgumentException("The announcement must be a hash Damgard announcement of size 1!");
+        }
+        if (responses.length != 1 || !(responses[0] instanceof HashDamgardResponse)) {
+            throw new IllegalArgumentException("The response must be a hash Damgard response of size 1");
+        }
+    }
+
+    /**
+     * Checks the opening with a single hash evaluation.
+     */
+    @Override
+    protected boolean verifyOpening(Announcement commitment, Response response) {
+        byte[] opening = ((HashDamgardResponse) response).getOpening();
+        return opening.length == OPENING_LENGTH && MessageDigest.isEqual(
+                ((HashDamgardAnnouncement) commitment).getCommitment(),
+                commit(opening, ((HashDamgardResponse) response).getAnnouncements()));
+    }
+
+    /**
+     * Computes the hash commitment SHA-256(opening, announcements).
+     *
+     * @param opening       randomness of the commitment
+     * @param announcements the committed announcements
+     * @return the commitment
+     */
+    static byte[] commit(byte[] opening, Announcement[] announcements) {
+        ByteAccumulator accumulator = new StreamingHashAccumulator(new SHA256HashFunction());
+        accumulator.append(opening);
+        accumulator.appendSeperator();
+        for (Announcement announcement : announcements) {
+            announcement.updateAccumulator(accumulator);
+            accumulator.appendSeperator();
+        }
+        return accumulator.extractBytes();
+    }
+
+    @Override
+    public Announcement recreateAnnouncement(Representation representation) {
+        return new HashDamgardAnnouncement(representation);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        HashDamgardTechnique that = (HashDamgardTechnique) o;
+        return Objects.equals(protocol, that.protocol);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(protocol);
+    }
+}
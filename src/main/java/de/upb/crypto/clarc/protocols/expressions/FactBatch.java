@@ -0,0 +1,69 @@
+package de.upb.crypto.clarc.protocols.expressions;
+
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.Zn;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A batch of fact sets stored column-wise: for every variable, one array contains its values in all rows.
+ * <p>
+ * Row i of the batch consists of the i-th entries of all columns. A null entry means that the variable has no value
+ * in that row.
+ */
+public final class FactBatch {
+
+    private final int size;
+    private final Map<String, Zn.ZnElement[]> znColumns;
+    private final Map<String, GroupElement[]> groupColumns;
+
+    /**
+     * @param size         the number of rows
+     * @param znColumns    map from names of Zn variables to their values, each array containing size values
+     * @param groupColumns map from names of group variables to their values, each array containing size values
+     */
+    public FactBatch(int size, Map<String, Zn.ZnElement[]> znColumns, Map<String, GroupElement[]> groupColumns) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size of a batch must not be negative");
+        }
+        this.size = size;
+        this.znColumns = new HashMap<>(znColumns);
+        this.groupColumns = new HashMap<>(groupColumns);
+        for (Zn.ZnElement[] column : this.znColumns.values()) {
+            if (column.length != size) {
+                throw new IllegalArgumentException("Every column must contain exactly one value per row");
+            }
+        }
+        for (GroupElement[] column : this.groupColumns.values()) {
+            if (column.length != size) {
+                throw new IllegalArgumentException("Every column must contain exactly one value per row");
+            }
+        }
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param name the name of a Zn variable
+     * @return the values of the variable in all rows, or null if the batch contains no such column. The array must not
+     * be modified.
+     */
+    public Zn.ZnElement[] getZnColumn(String name) {
+        return znColumns.get(name);
+    }
+
+    /**
+     * @param name the name of a group variable
+     * @return the values of the variable in all rows, or null if the batch contains no such column. The array must not
+     * be modified.
+     */
+    public GroupElement[] getGroupColumn(String name) {
+        return groupColumns.get(name);
+    }
+}
@@ -9,5 +9,15 @@ public abstract class GroupElementPolicyFacts implements PolicyFact {
 
     public abstract Map<String, GroupElement> getFacts();
 
+    /**
+     * Looks up the value of a single variable. Subclasses override this to avoid building the map of
+     * {@link #getFacts()}.
+     *
+     * @param name name of the variable
+     * @return the value of the variable, or null if it has no value
+     */
+    public GroupElement getFact(String name) {
+        return getFacts().get(name);
+    }
 
 }
@@ -0,0 +1,139 @@
+package de.upb.crypto.clarc.protocols.expressions;
+
+import de.upb.crypto.math.interfaces.structures.Group;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.serialization.ListRepresentation;
+import de.upb.crypto.math.serialization.MapRepresentation;
+import de.upb.crypto.math.serialization.ObjectRepresentation;
+import de.upb.crypto.math.serialization.RepresentableRepresentation;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.serialization.StringRepresentation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Group facts that are stored in an array indexed by the slots of a {@link VariableSlots}.
+ * <p>
+ * In contrast to {@link SimpleGroupElementPolicyFacts} and {@link SuperGroupElementPolicyFacts}, looking up a value
+ * neither copies nor merges maps. The values may be elements of different groups.
+ */
+public class IndexedGroupElementPolicyFacts extends GroupElementPolicyFacts {
+
+    private final VariableSlots slots;
+
+    /**
+     * values[i] is the value of the variable in slot i, or null if it has no value
+     */
+    private final GroupElement[] values;
+
+    /**
+     * @param slots  the slots of the variables
+     * @param values the value of the variable in slot i at position i, null for variables without value
+     */
+    public IndexedGroupElementPolicyFacts(VariableSlots slots, GroupElement[] values) {
+        if (values.length != slots.size()) {
+            throw new IllegalArgumentException("There must be exactly one value for every slot");
+        }
+        this.slots = slots;
+        this.values = values.clone();
+    }
+
+    /**
+     * @param slots  the slots of the variables
+     * @param values map from variable names to values. Values of variables without slot are ignored.
+     */
+    public IndexedGroupElementPolicyFacts(VariableSlots slots, Map<String, ? extends GroupElement> values) {
+        this.slots = slots;
+        this.values = new GroupElement[slots.size()];
+        for (int i = 0; i < this.values.length; i++) {
+            this.values[i] = values.get(slots.getName(i));
+        }
+    }
+
+    public IndexedGroupElementPolicyFacts(Representation representation) {
+        Map<String, GroupElement> facts = new HashMap<>();
+        representation.obj().get("facts").map().getMap().forEach((key, value) -> {
+            Group group = (Group) value.obj().get("group").repr().recreateRepresentable();
+            facts.put(key.str().get(), group.getElement(value.obj().get("value")));
+        });
+        List<String> names = new ArrayList<>();
+        representation.obj().get("slots").list().getList().forEach(name -> names.add(name.str().get()));
+        this.slots = VariableSlots.of(names);
+        this.values = new GroupElement[slots.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = facts.get(slots.getName(i));
+        }
+    }
+
+    public VariableSlots getSlots() {
+        return slots;
+    }
+
+    /**
+     * @param slot a slot of {@link #getSlots()}
+     * @return the value of the variable in the given slot, or null if it has no value
+     */
+    public GroupElement getFact(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    public GroupElement getFact(String name) {
+        int slot = slots.indexOf(name);
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public Map<String, GroupElement> getFacts() {
+        Map<String, GroupElement> facts = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                facts.put(slots.getName(i), values[i]);
+            }
+        }
+        return Collections.unmodifiableMap(facts);
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        MapRepresentation factsRepr = new MapRepresentation();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                ObjectRepresentation valueRepr = new ObjectRepresentation();
+                valueRepr.put("group", new RepresentableRepresentation(values[i].getStructure()));
+                valueRepr.put("value", values[i].getRepresentation());
+                factsRepr.put(new StringRepresentation(slots.getName(i)), valueRepr);
+            }
+        }
+        List<Representation> slotsRepr = new ArrayList<>();
+        for (int i = 0; i < slots.size(); i++) {
+            slotsRepr.add(new StringRepresentation(slots.getName(i)));
+        }
+        ObjectRepresentation repr = new ObjectRepresentation();
+        repr.put("slots", new ListRepresentation(slotsRepr));
+        repr.put("facts", factsRepr);
+        return repr;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        IndexedGroupElementPolicyFacts that = (IndexedGroupElementPolicyFacts) o;
+        return slots.equals(that.slots) && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = slots.hashCode();
+        result = 31 * result + Arrays.hashCode(values);
+        result = 31 * result + this.getClass().getCanonicalName().hashCode();
+        return result;
+    }
+}
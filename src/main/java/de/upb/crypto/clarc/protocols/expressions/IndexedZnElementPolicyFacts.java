@@ -0,0 +1,142 @@
+package de.upb.crypto.clarc.protocols.expressions;
+
+import de.upb.crypto.math.serialization.ListRepresentation;
+import de.upb.crypto.math.serialization.MapRepresentation;
+import de.upb.crypto.math.serialization.ObjectRepresentation;
+import de.upb.crypto.math.serialization.RepresentableRepresentation;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.serialization.StringRepresentation;
+import de.upb.crypto.math.structures.zn.Zn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zn facts that are stored in an array indexed by the slots of a {@link VariableSlots}.
+ * <p>
+ * In contrast to {@link SimpleZnElementPolicyFacts} and {@link SuperZnElementPolicyFacts}, looking up a value neither
+ * copies nor merges maps. Variables of expressions that have been bound to {@link #getSlots()} (see
+ * {@link de.upb.crypto.clarc.protocols.expressions.arith.ExpressionOptimizer#ExpressionOptimizer(VariableSlots)}) read
+ * their value by slot via {@link #getFact(int)}.
+ */
+public class IndexedZnElementPolicyFacts extends ZnElementPolicyFacts {
+
+    private final VariableSlots slots;
+
+    /**
+     * values[i] is the value of the variable in slot i, or null if it has no value
+     */
+    private final Zn.ZnElement[] values;
+
+    /**
+     * @param slots  the slots of the variables
+     * @param values the value of the variable in slot i at position i, null for variables without value
+     */
+    public IndexedZnElementPolicyFacts(VariableSlots slots, Zn.ZnElement[] values) {
+        if (values.length != slots.size()) {
+            throw new IllegalArgumentException("There must be exactly one value for every slot");
+        }
+        this.slots = slots;
+        this.values = values.clone();
+    }
+
+    /**
+     * @param slots  the slots of the variables
+     * @param values map from variable names to values. Values of variables without slot are ignored.
+     */
+    public IndexedZnElementPolicyFacts(VariableSlots slots, Map<String, ? extends Zn.ZnElement> values) {
+        this.slots = slots;
+        this.values = new Zn.ZnElement[slots.size()];
+        for (int i = 0; i < this.values.length; i++) {
+            this.values[i] = values.get(slots.getName(i));
+        }
+    }
+
+    public IndexedZnElementPolicyFacts(Representation representation) {
+        Zn zn = (Zn) representation.obj().get("zn").repr().recreateRepresentable();
+        Map<String, Zn.ZnElement> facts = new HashMap<>();
+        representation.obj().get("facts").map().getMap()
+                .forEach((key, value) -> facts.put(key.str().get(), zn.getElement(value)));
+        List<String> names = new ArrayList<>();
+        representation.obj().get("slots").list().getList().forEach(name -> names.add(name.str().get()));
+        this.slots = VariableSlots.of(names);
+        this.values = new Zn.ZnElement[slots.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = facts.get(slots.getName(i));
+        }
+    }
+
+    public VariableSlots getSlots() {
+        return slots;
+    }
+
+    /**
+     * @param slot a slot of {@link #getSlots()}
+     * @return the value of the variable in the given slot, or null if it has no value
+     */
+    public Zn.ZnElement getFact(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    public Zn.ZnElement getFact(String name) {
+        int slot = slots.indexOf(name);
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public Map<String, Zn.ZnElement> getFacts() {
+        Map<String, Zn.ZnElement> facts = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                facts.put(slots.getName(i), values[i]);
+            }
+        }
+        return Collections.unmodifiableMap(facts);
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        ObjectRepresentation repr = new ObjectRepresentation();
+        MapRepresentation factsRepr = new MapRepresentation();
+        Zn zn = null;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                factsRepr.put(new StringRepresentation(slots.getName(i)), values[i].getRepresentation());
+                zn = values[i].getStructure();
+            }
+        }
+        if (zn == null) {
+            throw new IllegalStateException("Facts without values cannot be represented");
+        }
+        List<Representation> slotsRepr = new ArrayList<>();
+        for (int i = 0; i < slots.size(); i++) {
+            slotsRepr.add(new StringRepresentation(slots.getName(i)));
+        }
+        repr.put("slots", new ListRepresentation(slotsRepr));
+        repr.put("facts", factsRepr);
+        repr.put("zn", new RepresentableRepresentation(zn));
+        return repr;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        IndexedZnElementPolicyFacts that = (IndexedZnElementPolicyFacts) o;
+        return slots.equals(that.slots) && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = slots.hashCode();
+        result = 31 * result + Arrays.hashCode(values);
+        result = 31 * result + this.getClass().getCanonicalName().hashCode();
+        return result;
+    }
+}
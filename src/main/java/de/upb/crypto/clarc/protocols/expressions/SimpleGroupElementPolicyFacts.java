@@ -4,6 +4,7 @@ import de.upb.crypto.math.interfaces.structures.Group;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
 import de.upb.crypto.math.serialization.*;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,7 +15,6 @@ public class SimpleGroupElementPolicyFacts extends GroupElementPolicyFacts {
 
 
     private final Map<String, GroupElement> facts;
-    private final MapRepresentation factsRepr;
     private final Group group;
 
     /**
@@ -23,8 +23,7 @@ public class SimpleGroupElementPolicyFacts extends GroupElementPolicyFacts {
      * @param elements map containing the mapping form fact name to a value
      */
     public SimpleGroupElementPolicyFacts(Map<String, GroupElement> elements) {
-        facts = elements;
-        factsRepr = new MapRepresentation();
+        facts = new HashMap<>(elements);
 
         group = elements.entrySet().iterator().next().getValue().getStructure();
 
@@ -34,16 +33,10 @@ public class SimpleGroupElementPolicyFacts extends GroupElementPolicyFacts {
                         "the same group");
             }
         }
-        elements.forEach((key, value) -> factsRepr.put(new StringRepresentation(key), value.getRepresentation()));
-
-
     }
 
     public SimpleGroupElementPolicyFacts(Representation representation) {
         group = (Group) representation.obj().get("group").repr().recreateRepresentable();
-        factsRepr = new MapRepresentation();
-        representation.obj().get("factsRepr").map().getMap().forEach((key1, value1) -> factsRepr.put(key1.str(),
-                group.getElement(value1).getRepresentation()));
         facts = new HashMap<>();
         representation.obj().get("factsRepr").map().getMap().forEach((key, value) -> facts.put(key.str().get(), group
                 .getElement(value)));
@@ -57,17 +50,29 @@ public class SimpleGroupElementPolicyFacts extends GroupElementPolicyFacts {
      * @return the added value;
      */
     public GroupElement addElement(String name, GroupElement element) {
-        factsRepr.put(new StringRepresentation(name), element.getRepresentation());
         return facts.put(name, element);
 
     }
 
+    /**
+     * @return an unmodifiable view of the facts
+     */
     public Map<String, GroupElement> getFacts() {
-        return new HashMap<>(facts);
+        return Collections.unmodifiableMap(facts);
     }
 
+    @Override
+    public GroupElement getFact(String name) {
+        return facts.get(name);
+    }
+
+    /**
+     * The representation of the facts is only built here, since most facts are never serialized.
+     */
     @Override
     public Representation getRepresentation() {
+        MapRepresentation factsRepr = new MapRepresentation();
+        facts.forEach((key, value) -> factsRepr.put(new StringRepresentation(key), value.getRepresentation()));
         ObjectRepresentation repr = new ObjectRepresentation();
         repr.put("factsRepr", factsRepr);
         repr.put("group", new RepresentableRepresentation(group));
@@ -86,14 +91,12 @@ public class SimpleGroupElementPolicyFacts extends GroupElementPolicyFacts {
         SimpleGroupElementPolicyFacts that = (SimpleGroupElementPolicyFacts) o;
 
         if (getFacts() != null ? !getFacts().equals(that.getFacts()) : that.getFacts() != null) return false;
-        if (factsRepr != null ? !factsRepr.equals(that.factsRepr) : that.factsRepr != null) return false;
         return group != null ? group.equals(that.group) : that.group == null;
     }
 
     @Override
     public int hashCode() {
         int result = getFacts() != null ? getFacts().hashCode() : 0;
-        result = 31 * result + (factsRepr != null ? factsRepr.hashCode() : 0);
         result = 31 * result + (group != null ? group.hashCode() : 0);
         result = 31 * result + this.getClass().getCanonicalName().hashCode();
         return result;
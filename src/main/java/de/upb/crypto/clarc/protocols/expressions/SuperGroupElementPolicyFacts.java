@@ -40,6 +40,21 @@ public class SuperGroupElementPolicyFacts extends GroupElementPolicyFacts {
         return factList;
     }
 
+    /**
+     * Looks up the value in the nested facts without merging them. As in {@link #getFacts()}, later facts take
+     * precedence over earlier ones.
+     */
+    @Override
+    public GroupElement getFact(String name) {
+        for (int i = facts.size() - 1; i >= 0; i--) {
+            GroupElement value = facts.get(i).getFact(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
     public boolean addElement(SimpleGroupElementPolicyFacts fact) {
         return this.facts.add(fact);
     }
@@ -40,6 +40,21 @@ public class SuperZnElementPolicyFacts extends ZnElementPolicyFacts {
         return factList;
     }
 
+    /**
+     * Looks up the value in the nested facts without merging them. As in {@link #getFacts()}, later facts take
+     * precedence over earlier ones.
+     */
+    @Override
+    public Zn.ZnElement getFact(String name) {
+        for (int i = facts.size() - 1; i >= 0; i--) {
+            Zn.ZnElement value = facts.get(i).getFact(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
     public boolean addElement(SimpleZnElementPolicyFacts fact) {
         return this.facts.add(fact);
     }
@@ -0,0 +1,103 @@
+package de.upb.crypto.clarc.protocols.expressions;
+
+import de.upb.crypto.clarc.protocols.expressions.arith.ArithExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.Variable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Assignment of variable names to slots 0, ..., size() - 1.
+ * <p>
+ * The slots are computed once for a set of expressions ({@link #bind(ArithExpression...)}). Facts for these expressions
+ * can then be stored in plain arrays indexed by slot ({@link IndexedZnElementPolicyFacts},
+ * {@link IndexedGroupElementPolicyFacts}). Variables of expressions that have been optimized for these slots (see
+ * {@link de.upb.crypto.clarc.protocols.expressions.arith.ExpressionOptimizer#ExpressionOptimizer(VariableSlots)})
+ * look up their value by slot instead of by name.
+ * <p>
+ * Instances are immutable.
+ */
+public final class VariableSlots {
+
+    /**
+     * Names of the variables, sorted lexicographically. The i-th name is assigned to slot i.
+     */
+    private final String[] names;
+
+    private final Map<String, Integer> slots;
+
+    private VariableSlots(String[] names) {
+        this.names = names;
+        this.slots = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            slots.put(names[i], i);
+        }
+    }
+
+    /**
+     * Assigns slots to all variables occurring in the given expressions.
+     *
+     * @param expressions the expressions
+     * @return the slots of the variables
+     */
+    public static VariableSlots bind(ArithExpression... expressions) {
+        Set<Variable> variables = new HashSet<>();
+        for (ArithExpression expression : expressions) {
+            expression.getVariables(variables);
+        }
+        TreeSet<String> names = new TreeSet<>();
+        variables.forEach(variable -> names.add(variable.getName()));
+        return new VariableSlots(names.toArray(new String[0]));
+    }
+
+    /**
+     * Assigns slots to the given variable names.
+     *
+     * @param names the names of the variables
+     * @return the slots of the variables
+     */
+    public static VariableSlots of(Collection<String> names) {
+        return new VariableSlots(new TreeSet<>(names).toArray(new String[0]));
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param name name of a variable
+     * @return the slot of the variable, or -1 if it has no slot
+     */
+    public int indexOf(String name) {
+        Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @param slot a slot
+     * @return the name of the variable in the given slot
+     */
+    public String getName(int slot) {
+        return names[slot];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(names, ((VariableSlots) o).names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(names);
+    }
+}
@@ -8,4 +8,15 @@ import java.util.Map;
 public abstract class ZnElementPolicyFacts implements PolicyFact {
 
     public abstract Map<String, Zn.ZnElement> getFacts();
+
+    /**
+     * Looks up the value of a single variable. Subclasses override this to avoid building the map of
+     * {@link #getFacts()}.
+     *
+     * @param name name of the variable
+     * @return the value of the variable, or null if it has no value
+     */
+    public Zn.ZnElement getFact(String name) {
+        return getFacts().get(name);
+    }
 }
@@ -0,0 +1,44 @@
+package de.upb.crypto.clarc.protocols.expressions.arith;
+
+import de.upb.crypto.clarc.protocols.expressions.GroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.IndexedGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.VariableSlots;
+import de.upb.crypto.clarc.protocols.expressions.ZnElementPolicyFacts;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+
+/**
+ * A {@link GroupElementVariable} whose slot in some {@link VariableSlots} has been resolved when it was created (see
+ * {@link ExpressionOptimizer#ExpressionOptimizer(VariableSlots)}).
+ * <p>
+ * For {@link IndexedGroupElementPolicyFacts} of these slots, the value is read by slot. All other facts are looked up
+ * by name. Instances are immutable.
+ */
+final class BoundGroupElementVariable extends GroupElementVariable {
+
+    private final VariableSlots slots;
+
+    /**
+     * The slot of this variable in {@link #slots}
+     */
+    private final int slot;
+
+    BoundGroupElementVariable(String name, VariableSlots slots) {
+        super(name);
+        this.slots = slots;
+        this.slot = slots.indexOf(name);
+    }
+
+    @Override
+    public GroupElement calculateResult(GroupElementPolicyFacts groupFacts, ZnElementPolicyFacts znFacts) {
+        if (slot >= 0 && groupFacts instanceof IndexedGroupElementPolicyFacts
+                && ((IndexedGroupElementPolicyFacts) groupFacts).getSlots() == slots) {
+            GroupElement value = ((IndexedGroupElementPolicyFacts) groupFacts).getFact(slot);
+            if (value == null) {
+                throw new IllegalArgumentException("The variable value of the variable '" + getName()
+                        + "' is not defined");
+            }
+            return value;
+        }
+        return super.calculateResult(groupFacts, znFacts);
+    }
+}
@@ -0,0 +1,43 @@
+package de.upb.crypto.clarc.protocols.expressions.arith;
+
+import de.upb.crypto.clarc.protocols.expressions.GroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.IndexedZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.VariableSlots;
+import de.upb.crypto.clarc.protocols.expressions.ZnElementPolicyFacts;
+import de.upb.crypto.math.structures.zn.Zn;
+
+/**
+ * A {@link ZnVariable} whose slot in some {@link VariableSlots} has been resolved when it was created (see
+ * {@link ExpressionOptimizer#ExpressionOptimizer(VariableSlots)}).
+ * <p>
+ * For {@link IndexedZnElementPolicyFacts} of these slots, the value is read by slot. All other facts are looked up by
+ * name. Instances are immutable.
+ */
+final class BoundZnVariable extends ZnVariable {
+
+    private final VariableSlots slots;
+
+    /**
+     * The slot of this variable in {@link #slots}
+     */
+    private final int slot;
+
+    BoundZnVariable(String name, VariableSlots slots) {
+        super(name);
+        this.slots = slots;
+        this.slot = slots.indexOf(name);
+    }
+
+    @Override
+    public Zn.ZnElement calculateResult(GroupElementPolicyFacts groupFacts, ZnElementPolicyFacts znFacts) {
+        if (slot >= 0 && znFacts instanceof IndexedZnElementPolicyFacts
+                && ((IndexedZnElementPolicyFacts) znFacts).getSlots() == slots) {
+            Zn.ZnElement value = ((IndexedZnElementPolicyFacts) znFacts).getFact(slot);
+            if (value == null) {
+                throw new IllegalArgumentException(getName() + " has no value");
+            }
+            return value;
+        }
+        return super.calculateResult(groupFacts, znFacts);
+    }
+}
@@ -0,0 +1,337 @@
+package de.upb.crypto.clarc.protocols.expressions.arith;
+
+import de.upb.crypto.clarc.protocols.expressions.SuperGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.SuperZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.VariableSlots;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.Zn;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites arithmetic expressions into equivalent expressions that are cheaper to evaluate.
+ * <p>
+ * The following rewritings are applied bottom-up:
+ * <ul>
+ * <li>Constant folding: every subtree that {@link ArithExpression#isDetermined() is determined} is replaced by a
+ * literal containing its value.</li>
+ * <li>Merging of powers: nested products are flattened and powers of the same base are merged, i.e.
+ * g^x * g^y becomes g^(x+y). All determined factors of a product are multiplied into a single literal.</li>
+ * <li>Folding of inverses: (g^x)^(-1) becomes (g^(-1))^x, which is g'^x for a literal g' if g is determined, and
+ * (g^(-1))^(-1) becomes g.</li>
+ * <li>Common subexpression elimination: structurally equal subtrees of the optimized expression are represented by
+ * the same instance.</li>
+ * <li>Binding of variables: if the optimizer has been created for some {@link VariableSlots}, every variable is
+ * replaced by an immutable variable that knows its slot, so it reads its value from
+ * {@link de.upb.crypto.clarc.protocols.expressions.IndexedZnElementPolicyFacts} of these slots without looking up its
+ * name. The given expressions are not modified.</li>
+ * </ul>
+ * All intermediate state (the optimized form of each visited node, the canonical subtrees and whether a node is
+ * determined) only lives for a single call of {@code optimize}, so the optimizer does not retain any expression and
+ * each node is visited once per call.
+ * <p>
+ * All methods are thread-safe.
+ */
+public class ExpressionOptimizer {
+
+    private static final ExpressionOptimizer DEFAULT_OPTIMIZER = new ExpressionOptimizer();
+
+    /**
+     * Slots that variables are bound to, null to keep the variables
+     */
+    private final VariableSlots slots;
+
+    public ExpressionOptimizer() {
+        this(null);
+    }
+
+    /**
+     * @param slots the slots that the variables of optimized expressions are bound to, null to keep the variables
+     */
+    public ExpressionOptimizer(VariableSlots slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * @return an optimizer that can be shared by all users
+     */
+    public static ExpressionOptimizer getDefault() {
+        return DEFAULT_OPTIMIZER;
+    }
+
+    /**
+     * @param expression the expression to optimize
+     * @return an expression that evaluates to the same result as the given one for all facts
+     */
+    public ArithGroupElementExpression optimize(ArithGroupElementExpression expression) {
+        return new Pass().optimize(expression);
+    }
+
+    /**
+     * @param expression the expression to optimize
+     * @return an expression that evaluates to the same result as the given one for all facts
+     */
+    public ArithZnElementExpression optimize(ArithZnElementExpression expression) {
+        return new Pass().optimize(expression);
+    }
+
+    /**
+     * State of a single call of {@code optimize}.
+     */
+    private final class Pass {
+        /**
+         * Map from visited nodes of the given expression to their optimized form
+         */
+        private final Map<ArithExpression, ArithExpression> optimized = new IdentityHashMap<>();
+
+        /**
+         * Canonical instances of all subtrees of the optimized expression
+         */
+        private final Map<ArithExpression, ArithExpression> interned = new HashMap<>();
+
+        /**
+         * Whether a visited node is determined, computed from its children
+         */
+        private final Map<ArithExpression, Boolean> determined = new IdentityHashMap<>();
+
+        ArithGroupElementExpression optimize(ArithGroupElementExpression expression) {
+            ArithExpression result = optimized.get(expression);
+            if (result == null) {
+                result = intern(rewrite(expression));
+                optimized.put(expression, result);
+            }
+            return (ArithGroupElementExpression) result;
+        }
+
+        ArithZnElementExpression optimize(ArithZnElementExpression expression) {
+            ArithExpression result = optimized.get(expression);
+            if (result == null) {
+                result = intern(rewrite(expression));
+                optimized.put(expression, result);
+            }
+            return (ArithZnElementExpression) result;
+        }
+
+        private boolean isDetermined(ArithExpression expression) {
+            Boolean result = determined.get(expression);
+            if (result == null) {
+                result = computeDetermined(expression);
+                determined.put(expression, result);
+            }
+            return result;
+        }
+
+        private boolean computeDetermined(ArithExpression expression) {
+            if (expression instanceof NumberLiteral) {
+                return true;
+            }
+            if (expression instanceof Variable) {
+                return false;
+            }
+            if (expression instanceof BinaryExpression) {
+                BinaryExpression binary = (BinaryExpression) expression;
+                return isDetermined(binary.getLHS()) && isDetermined(binary.getRHS());
+            }
+            if (expression instanceof UnaryExpression) {
+                return isDetermined(((UnaryExpression) expression).getElement());
+            }
+            if (expression instanceof NAryExpression) {
+                for (ArithExpression element : ((NAryExpression) expression).getElements()) {
+                    if (!isDetermined(element)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (expression instanceof PairingGroupElementExpression) {
+                PairingGroupElementExpression pairing = (PairingGroupElementExpression) expression;
+                return isDetermined(pairing.getFirstArg()) && isDetermined(pairing.getSecondArg())
+                        && (pairing.getExponent() == null || isDetermined(pairing.getExponent()));
+            }
+            return expression.isDetermined();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends ArithExpression> T intern(T expression) {
+            ArithExpression existing = interned.putIfAbsent(expression, expression);
+            return existing == null ? expression : (T) existing;
+        }
+
+        private ArithGroupElementExpression rewrite(ArithGroupElementExpression expression) {
+            if (expression instanceof NumberGroupElementLiteral) {
+                return expression;
+            }
+            if (isDetermined(expression)) {
+                return new NumberGroupElementLiteral(expression.calculateResult(new SuperGroupElementPolicyFacts(),
+                        new SuperZnElementPolicyFacts()));
+            }
+            if (expression instanceof PowerGroupElementExpression) {
+                PowerGroupElementExpression power = (PowerGroupElementExpression) expression;
+                return power(optimize(power.getLHS()), optimize(power.getRHS()));
+            }
+            if (expression instanceof InverseGroupElementExpression) {
+                return inverse(optimize(((InverseGroupElementExpression) expression).getElement()));
+            }
+            if (expression instanceof ProductGroupElementExpression) {
+                return product(((ProductGroupElementExpression) expression).getElements());
+            }
+            if (expression instanceof PairingGroupElementExpression) {
+                PairingGroupElementExpression pairing = (PairingGroupElementExpression) expression;
+                return new PairingGroupElementExpression(pairing.getMap(), optimize(pairing.getFirstArg()),
+                        optimize(pairing.getSecondArg()),
+                        pairing.getExponent() == null ? null : optimize(pairing.getExponent()));
+            }
+            if (slots != null && expression instanceof GroupElementVariable) {
+                return new BoundGroupElementVariable(((GroupElementVariable) expression).getName(), slots);
+            }
+            return expression;
+        }
+
+        /**
+         * @return base^exponent, where powers of powers are merged
+         */
+        private ArithGroupElementExpression power(ArithGroupElementExpression base, ArithZnElementExpression exponent) {
+            if (base instanceof NumberGroupElementLiteral && exponent instanceof NumberZnElementLiteral) {
+                return intern(new NumberGroupElementLiteral(((NumberGroupElementLiteral) base).getValue()
+                        .pow(((NumberZnElementLiteral) exponent).getValue())));
+            }
+            if (base instanceof PowerGroupElementExpression) {
+                PowerGroupElementExpression inner = (PowerGroupElementExpression) base;
+                List<ArithZnElementExpression> factors = new ArrayList<>();
+                factors.add(inner.getRHS());
+                factors.add(exponent);
+                return intern(new PowerGroupElementExpression(inner.getLHS(),
+                        optimize(new ProductZnExpression(factors))));
+            }
+            return intern(new PowerGroupElementExpression(base, exponent));
+        }
+
+        /**
+         * @return element^(-1), where the inversion is moved into the base of powers
+         */
+        private ArithGroupElementExpression inverse(ArithGroupElementExpression element) {
+            if (element instanceof InverseGroupElementExpression) {
+                return ((InverseGroupElementExpression) element).getElement();
+            }
+            if (element instanceof PowerGroupElementExpression) {
+                PowerGroupElementExpression power = (PowerGroupElementExpression) element;
+                return power(inverse(power.getLHS()), power.getRHS());
+            }
+            if (element instanceof NumberGroupElementLiteral) {
+                return intern(new NumberGroupElementLiteral(((NumberGroupElementLiteral) element).getValue().inv()));
+            }
+            return intern(new InverseGroupElementExpression(element));
+        }
+
+        private ArithGroupElementExpression product(List<ArithGroupElementExpression> factors) {
+            List<ArithGroupElementExpression> flattened = new ArrayList<>();
+            flatten(factors, flattened);
+
+            GroupElement constant = null;
+            //Exponents of all powers, grouped by their base
+            Map<ArithGroupElementExpression, List<ArithZnElementExpression>> powers = new LinkedHashMap<>();
+            List<ArithGroupElementExpression> others = new ArrayList<>();
+            for (ArithGroupElementExpression factor : flattened) {
+                if (factor instanceof NumberGroupElementLiteral) {
+                    GroupElement value = ((NumberGroupElementLiteral) factor).getValue();
+                    constant = constant == null ? value : constant.op(value);
+                } else if (factor instanceof PowerGroupElementExpression) {
+                    PowerGroupElementExpression power = (PowerGroupElementExpression) factor;
+                    powers.computeIfAbsent(power.getLHS(), base -> new ArrayList<>()).add(power.getRHS());
+                } else {
+                    others.add(factor);
+                }
+            }
+
+            List<ArithGroupElementExpression> result = new ArrayList<>();
+            for (Map.Entry<ArithGroupElementExpression, List<ArithZnElementExpression>> entry : powers.entrySet()) {
+                if (entry.getValue().size() == 1) {
+                    result.add(power(entry.getKey(), entry.getValue().get(0)));
+                } else {
+                    result.add(power(entry.getKey(), optimize(new SumZnExpression(entry.getValue()))));
+                }
+            }
+            result.addAll(others);
+            if (constant != null) {
+                result.add(intern(new NumberGroupElementLiteral(constant)));
+            }
+            return result.size() == 1 ? result.get(0) : new ProductGroupElementExpression(result);
+        }
+
+        private void flatten(List<ArithGroupElementExpression> factors, List<ArithGroupElementExpression> result) {
+            for (ArithGroupElementExpression factor : factors) {
+                ArithGroupElementExpression optimizedFactor = optimize(factor);
+                if (optimizedFactor instanceof ProductGroupElementExpression) {
+                    flatten(((ProductGroupElementExpression) optimizedFactor).getElements(), result);
+                } else {
+                    result.add(optimizedFactor);
+                }
+            }
+        }
+
+        private ArithZnElementExpression rewrite(ArithZnElementExpression expression) {
+            if (expression instanceof NumberZnElementLiteral) {
+                return expression;
+            }
+            if (isDetermined(expression)) {
+                return new NumberZnElementLiteral(expression.calculateResult(new SuperGroupElementPolicyFacts(),
+                        new SuperZnElementPolicyFacts()));
+            }
+            if (expression instanceof SumZnExpression) {
+                List<ArithZnElementExpression> summands = new ArrayList<>();
+                Zn.ZnElement constant = null;
+                for (ArithZnElementExpression summand : flattenSum(((SumZnExpression) expression).getElements())) {
+                    if (summand instanceof NumberZnElementLiteral) {
+                        Zn.ZnElement value = ((NumberZnElementLiteral) summand).getValue();
+                        constant = constant == null ? value : constant.add(value);
+                    } else {
+                        summands.add(summand);
+                    }
+                }
+                if (constant != null && !constant.equals(constant.getStructure().getZeroElement())) {
+                    summands.add(intern(new NumberZnElementLiteral(constant)));
+                }
+                return summands.size() == 1 ? summands.get(0) : new SumZnExpression(summands);
+            }
+            if (expression instanceof ProductZnExpression) {
+                List<ArithZnElementExpression> factors = new ArrayList<>();
+                Zn.ZnElement constant = null;
+                for (ArithZnElementExpression factor : ((ProductZnExpression) expression).getElements()) {
+                    ArithZnElementExpression optimizedFactor = optimize(factor);
+                    if (optimizedFactor instanceof NumberZnElementLiteral) {
+                        Zn.ZnElement value = ((NumberZnElementLiteral) optimizedFactor).getValue();
+                        constant = constant == null ? value : constant.mul(value);
+                    } else {
+                        factors.add(optimizedFactor);
+                    }
+                }
+                if (constant != null && !constant.equals(constant.getStructure().getOneElement())) {
+                    factors.add(intern(new NumberZnElementLiteral(constant)));
+                }
+                return factors.size() == 1 ? factors.get(0) : new ProductZnExpression(factors);
+            }
+            if (slots != null && expression instanceof ZnVariable) {
+                return new BoundZnVariable(((ZnVariable) expression).getName(), slots);
+            }
+            return expression;
+        }
+
+        private List<ArithZnElementExpression> flattenSum(List<ArithZnElementExpression> summands) {
+            List<ArithZnElementExpression> result = new ArrayList<>();
+            for (ArithZnElementExpression summand : summands) {
+                ArithZnElementExpression optimizedSummand = optimize(summand);
+                if (optimizedSummand instanceof SumZnExpression) {
+                    result.addAll(((SumZnExpression) optimizedSummand).getElements());
+                } else {
+                    result.add(optimizedSummand);
+                }
+            }
+            return result;
+        }
+    }
+}
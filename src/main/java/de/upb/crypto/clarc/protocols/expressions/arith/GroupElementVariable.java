@@ -38,12 +38,12 @@ public class GroupElementVariable implements ArithGroupElementExpression, Variab
     }
 
     @Override
-    public GroupElement calculateResult(GroupElementPolicyFacts GroupElement, ZnElementPolicyFacts znFacts) {
-        if (GroupElement.getFacts().containsKey(name)) {
-            return GroupElement.getFacts().get(name);
-        } else {
+    public GroupElement calculateResult(GroupElementPolicyFacts groupFacts, ZnElementPolicyFacts znFacts) {
+        GroupElement value = groupFacts.getFact(name);
+        if (value == null) {
             throw new IllegalArgumentException("The variable value of the variable '" + name + "' is not defined");
         }
+        return value;
     }
 
     @Override
@@ -0,0 +1,184 @@
+package de.upb.crypto.clarc.protocols.expressions.arith;
+
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Simultaneous multi-exponentiation, i.e. computation of \prod_{i} g_i ^ e_i for bases g_i of the same group.
+ * <p>
+ * All exponents are processed window by window starting with the most significant window, so the squarings are shared
+ * by all bases instead of being done once per base.
+ * <ul>
+ * <li>For few bases, Straus' method is used. It precomputes g_i^d for all digits d of a window, so every window costs
+ * one multiplication per base.</li>
+ * <li>For many bases, Pippenger's method is used. Per window, the bases are sorted into buckets by their digit and
+ * the buckets are combined with a running sum, which avoids the per-base tables.</li>
+ * </ul>
+ */
+public final class MultiExponentiation {
+
+    /**
+     * Number of bases from which on Pippenger's method is used instead of Straus' method.
+     * <p>
+     * For n bases and b-bit exponents, both methods need b squarings. Besides that, Straus' method with window size 4
+     * costs 14n operations for the tables and n operations per window, i.e. about n * (b/4 + 14) in total. Pippenger's
+     * method with window size w costs n operations to fill the buckets and about 2 * 2^w operations to combine them per
+     * window, i.e. about b/w * (n + 2^(w+1)) in total. For b = 256, the two cost models cross at about 120 bases
+     * (e.g. n = 64: 5248 vs. 6144, n = 128: 10240 vs. 9830, n = 256: 20224 vs. 16384 operations).
+     */
+    public static final int PIPPENGER_THRESHOLD = 128;
+
+    /**
+     * Window size for Straus' method
+     */
+    private static final int STRAUS_WINDOW_SIZE = 4;
+
+    private MultiExponentiation() {
+    }
+
+    /**
+     * Computes \prod_{i} g_i ^ e_i.
+     *
+     * @param bases     the bases g_i, all elements of the same group
+     * @param exponents the exponents e_i, may be negative
+     * @return the product of the powers
+     * @throws IllegalArgumentException if the arrays are empty or have different lengths
+     */
+    public static GroupElement compute(GroupElement[] bases, BigInteger[] exponents) {
+        if (bases.length == 0 || bases.length != exponents.length) {
+            throw new IllegalArgumentException("There must be exactly one exponent for every base");
+        }
+
+        GroupElement[] g = new GroupElement[bases.length];
+        BigInteger[] e = new BigInteger[bases.length];
+        int maxBitLength = 0;
+        for (int i = 0; i < bases.length; i++) {
+            //Negative exponents are handled by inverting the base
+            g[i] = exponents[i].signum() < 0 ? bases[i].inv() : bases[i];
+            e[i] = exponents[i].abs();
+            maxBitLength = Math.max(maxBitLength, e[i].bitLength());
+        }
+
+        GroupElement result = bases.length < PIPPENGER_THRESHOLD
+                ? straus(g, e, maxBitLength)
+                : pippenger(g, e, maxBitLength);
+        return result == null ? bases[0].getStructure().getNeutralElement() : result;
+    }
+
+    /**
+     * @return the product, or null if it is the neutral element because all exponents are zero
+     */
+    private static GroupElement straus(GroupElement[] bases, BigInteger[] exponents, int maxBitLength) {
+        int w = STRAUS_WINDOW_SIZE;
+        int digits = (1 << w) - 1;
+
+        //tables[i][d - 1] = g_i ^ d
+        GroupElement[][] tables = new GroupElement[bases.length][];
+        for (int i = 0; i < bases.length; i++) {
+            int maxDigit = exponents[i].bitLength() >= w ? digits : (1 << exponents[i].bitLength()) - 1;
+            tables[i] = new GroupElement[maxDigit];
+            if (maxDigit > 0) {
+                tables[i][0] = bases[i];
+                for (int d = 1; d < maxDigit; d++) {
+                    tables[i][d] = tables[i][d - 1].op(bases[i]);
+                }
+            }
+        }
+
+        GroupElement result = null;
+        for (int k = (maxBitLength + w - 1) / w - 1; k >= 0; k--) {
+            result = square(result, w);
+            for (int i = 0; i < bases.length; i++) {
+                int digit = getDigit(exponents[i], k, w);
+                if (digit != 0) {
+                    result = result == null ? tables[i][digit - 1] : result.op(tables[i][digit - 1]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the product, or null if it is the neutral element because all exponents are zero
+     */
+    private static GroupElement pippenger(GroupElement[] bases, BigInteger[] exponents, int maxBitLength) {
+        int w = getPippengerWindowSize(bases.length);
+        GroupElement[] buckets = new GroupElement[(1 << w) - 1];
+
+        GroupElement result = null;
+        for (int k = (maxBitLength + w - 1) / w - 1; k >= 0; k--) {
+            result = square(result, w);
+
+            //buckets[d - 1] is the product of all bases whose exponent has the digit d in the current window
+            Arrays.fill(buckets, null);
+            for (int i = 0; i < bases.length; i++) {
+                int digit = getDigit(exponents[i], k, w);
+                if (digit != 0) {
+                    buckets[digit - 1] = buckets[digit - 1] == null ? bases[i] : buckets[digit - 1].op(bases[i]);
+                }
+            }
+
+            //\prod_d buckets[d - 1] ^ d, computed as product of the running products of buckets[d'] for d' >= d
+            GroupElement running = null;
+            GroupElement window = null;
+            for (int d = buckets.length - 1; d >= 0; d--) {
+                if (buckets[d] != null) {
+                    running = running == null ? buckets[d] : running.op(buckets[d]);
+                }
+                if (running != null) {
+                    window = window == null ? running : window.op(running);
+                }
+            }
+            if (window != null) {
+                result = result == null ? window : result.op(window);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Window size that minimizes the number of group operations of Pippenger's method for the given number of bases,
+     * i.e. the w minimizing (n + 2^(w+1)) / w per exponent bit (see {@link #PIPPENGER_THRESHOLD}). This is about
+     * log2(n) - log2(log2(n)), e.g. w = 5 for 128 bases and w = 7 for 1024 bases.
+     */
+    private static int getPippengerWindowSize(int numberOfBases) {
+        int bestWindowSize = 2;
+        for (int w = 3; w <= 16; w++) {
+            //compare (n + 2^(w+1)) / w with the best cost so far without rounding
+            long cost = (long) numberOfBases + (1L << (w + 1));
+            long bestCost = (long) numberOfBases + (1L << (bestWindowSize + 1));
+            if (cost * bestWindowSize < bestCost * w) {
+                bestWindowSize = w;
+            }
+        }
+        return bestWindowSize;
+    }
+
+    /**
+     * @return x ^ (2^w), where null represents the neutral element
+     */
+    private static GroupElement square(GroupElement x, int w) {
+        if (x == null) {
+            return null;
+        }
+        for (int b = 0; b < w; b++) {
+            x = x.op(x);
+        }
+        return x;
+    }
+
+    /**
+     * @return bits k*w to (k+1)*w - 1 of the given exponent
+     */
+    private static int getDigit(BigInteger exponent, int k, int w) {
+        int digit = 0;
+        for (int b = 0; b < w; b++) {
+            if (exponent.testBit(k * w + b)) {
+                digit |= 1 << b;
+            }
+        }
+        return digit;
+    }
+}
@@ -6,6 +6,7 @@ import de.upb.crypto.math.hash.annotations.AnnotatedUbrUtil;
 import de.upb.crypto.math.hash.annotations.UniqueByteRepresented;
 import de.upb.crypto.math.interfaces.hash.ByteAccumulator;
 import de.upb.crypto.math.interfaces.mappings.BilinearMap;
+import de.upb.crypto.math.interfaces.mappings.PairingProductExpression;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
 import de.upb.crypto.math.interfaces.structures.GroupElementMixedExpression;
 import de.upb.crypto.math.serialization.ObjectRepresentation;
@@ -113,6 +114,64 @@ public class PairingGroupElementExpression implements ArithGroupElementExpressio
         throw new IllegalArgumentException("The first argument does not evaluate to a G1 Element");
     }
 
+    /**
+     * Adds e(g1^e, g2) to the given product of pairings, where g1, g2 and e are the results of the arguments of this
+     * expression. This allows to evaluate several pairings with a shared Miller loop and a single final
+     * exponentiation.
+     *
+     * @param product a product of pairings of {@link #getMap()}
+     * @return the extended product
+     */
+    PairingProductExpression appendResultTo(PairingProductExpression product, GroupElementPolicyFacts groupFacts,
+                                            ZnElementPolicyFacts znFacts) {
+        GroupElement g1 = firstArg.calculateResult(groupFacts, znFacts);
+        GroupElement g2 = secondArg.calculateResult(groupFacts, znFacts);
+        if (!g1.getStructure().equals(map.getG1())) {
+            throw new IllegalArgumentException("The first argument does not evaluate to a G1 Element");
+        }
+        if (!g2.getStructure().equals(map.getG2())) {
+            throw new IllegalArgumentException("The second argument does not evaluate to a G2 element");
+        }
+        if (exponents != null) {
+            g1 = g1.pow(exponents.calculateResult(groupFacts, znFacts).getInteger());
+        }
+        return product.op(g1.asPowProductExpression(), g2.asPowProductExpression());
+    }
+
+    /**
+     * Same as {@link #appendResultTo(PairingProductExpression, GroupElementPolicyFacts, ZnElementPolicyFacts)}, but
+     * keeps the arguments as (not yet evaluated) expressions where possible.
+     *
+     * @param product a product of pairings of {@link #getMap()}
+     * @return the extended product
+     */
+    PairingProductExpression appendEfficientExpressionTo(PairingProductExpression product,
+                                                         GroupElementPolicyFacts groupFacts,
+                                                         ZnElementPolicyFacts znFacts) {
+        if (exponents == null || exponents.calculateResult(groupFacts, znFacts).getInteger().equals(BigInteger.ONE)) {
+            return product.op(firstArg.resultAsEfficientExpression(groupFacts, znFacts).getPowExpr(),
+                    secondArg.resultAsEfficientExpression(groupFacts, znFacts).getPowExpr());
+        }
+        //The exponent is moved into the first argument, e(g1, g2)^e = e(g1^e, g2)
+        return appendResultTo(product, groupFacts, znFacts);
+    }
+
+    public BilinearMap getMap() {
+        return map;
+    }
+
+    public ArithGroupElementExpression getFirstArg() {
+        return firstArg;
+    }
+
+    public ArithGroupElementExpression getSecondArg() {
+        return secondArg;
+    }
+
+    public ArithZnElementExpression getExponent() {
+        return exponents;
+    }
+
     @Override
     public boolean isDetermined() {
         return firstArg.isDetermined() && secondArg.isDetermined() && (exponents == null || exponents.isDetermined());
@@ -3,15 +3,21 @@ package de.upb.crypto.clarc.protocols.expressions.arith;
 
 import de.upb.crypto.clarc.protocols.expressions.GroupElementPolicyFacts;
 import de.upb.crypto.clarc.protocols.expressions.ZnElementPolicyFacts;
+import de.upb.crypto.math.interfaces.mappings.BilinearMap;
+import de.upb.crypto.math.interfaces.mappings.PairingProductExpression;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
 import de.upb.crypto.math.interfaces.structures.GroupElementMixedExpression;
+import de.upb.crypto.math.interfaces.structures.PowProductExpression;
 import de.upb.crypto.math.serialization.ListRepresentation;
 import de.upb.crypto.math.serialization.RepresentableRepresentation;
 import de.upb.crypto.math.serialization.Representation;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ProductGroupElementExpression extends NAryExpression implements ProductExpression,
@@ -41,9 +47,30 @@ public class ProductGroupElementExpression extends NAryExpression implements Pro
     public GroupElementMixedExpression resultAsEfficientExpression(GroupElementPolicyFacts groupFacts,
                                                                    ZnElementPolicyFacts znFacts) {
         if (!factors.isEmpty()) {
-            GroupElementMixedExpression res = factors.get(0).resultAsEfficientExpression(groupFacts, znFacts);
-            for (int i = 1; i < factors.size(); i++) {
-                res.op(factors.get(i).resultAsEfficientExpression(groupFacts, znFacts));
+            List<PowerGroupElementExpression> powers = getPowerFactors();
+            List<PairingGroupElementExpression> pairings = getPairingFactors();
+            GroupElementMixedExpression res = null;
+            if (powers.size() > 1) {
+                res = new GroupElementMixedExpression(powProduct(powers, groupFacts, znFacts));
+            }
+            if (pairings.size() > 1) {
+                Map<BilinearMap, PairingProductExpression> products = new LinkedHashMap<>();
+                for (PairingGroupElementExpression pairing : pairings) {
+                    products.put(pairing.getMap(), pairing.appendEfficientExpressionTo(
+                            getPairingProduct(products, pairing.getMap()), groupFacts, znFacts));
+                }
+                for (PairingProductExpression product : products.values()) {
+                    GroupElementMixedExpression factor = new GroupElementMixedExpression(product);
+                    res = res == null ? factor : res.op(factor);
+                }
+            }
+            for (ArithGroupElementExpression e : factors) {
+                if (powers.size() > 1 && e instanceof PowerGroupElementExpression
+                        || pairings.size() > 1 && e instanceof PairingGroupElementExpression) {
+                    continue;
+                }
+                GroupElementMixedExpression factor = e.resultAsEfficientExpression(groupFacts, znFacts);
+                res = res == null ? factor : res.op(factor);
             }
             return res;
         } else {
@@ -54,10 +81,30 @@ public class ProductGroupElementExpression extends NAryExpression implements Pro
     @Override
     public GroupElement calculateResult(GroupElementPolicyFacts groupFacts, ZnElementPolicyFacts znFacts) {
         if (!factors.isEmpty()) {
-            GroupElement res;
-            res = factors.get(0).calculateResult(groupFacts, znFacts).getStructure().getNeutralElement();
+            List<PowerGroupElementExpression> powers = getPowerFactors();
+            List<PairingGroupElementExpression> pairings = getPairingFactors();
+            GroupElement res = null;
+            if (powers.size() > 1) {
+                res = multiExponentiation(powers, groupFacts, znFacts);
+            }
+            if (pairings.size() > 1) {
+                Map<BilinearMap, PairingProductExpression> products = new LinkedHashMap<>();
+                for (PairingGroupElementExpression pairing : pairings) {
+                    products.put(pairing.getMap(), pairing.appendResultTo(
+                            getPairingProduct(products, pairing.getMap()), groupFacts, znFacts));
+                }
+                for (PairingProductExpression product : products.values()) {
+                    GroupElement factor = new GroupElementMixedExpression(product).evaluate();
+                    res = res == null ? factor : res.op(factor);
+                }
+            }
             for (ArithGroupElementExpression e : factors) {
-                res = res.op(e.calculateResult(groupFacts, znFacts));
+                if (powers.size() > 1 && e instanceof PowerGroupElementExpression
+                        || pairings.size() > 1 && e instanceof PairingGroupElementExpression) {
+                    continue;
+                }
+                GroupElement factor = e.calculateResult(groupFacts, znFacts);
+                res = res == null ? factor : res.op(factor);
             }
             return res;
         } else {
@@ -66,6 +113,75 @@ public class ProductGroupElementExpression extends NAryExpression implements Pro
         }
     }
 
+    /**
+     * @return all factors of the form g^x
+     */
+    private List<PowerGroupElementExpression> getPowerFactors() {
+        return factors.stream()
+                .filter(e -> e instanceof PowerGroupElementExpression)
+                .map(e -> (PowerGroupElementExpression) e)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return all factors of the form e(g, h)^x
+     */
+    private List<PairingGroupElementExpression> getPairingFactors() {
+        return factors.stream()
+                .filter(e -> e instanceof PairingGroupElementExpression)
+                .map(e -> (PairingGroupElementExpression) e)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the product of pairings of the given map that has been collected so far. The pairings of one map are
+     * evaluated together, i.e. with one shared Miller loop and a single final exponentiation.
+     */
+    private static PairingProductExpression getPairingProduct(Map<BilinearMap, PairingProductExpression> products,
+                                                              BilinearMap map) {
+        PairingProductExpression product = products.get(map);
+        return product == null ? map.pairingProductExpression() : product;
+    }
+
+    /**
+     * Collects the given powers into a single pow-product expression without evaluating it.
+     *
+     * @param powers the factors g_i^{x_i}
+     * @return the (unevaluated) expression \prod_{i} g_i^{x_i}
+     */
+    private static PowProductExpression powProduct(List<PowerGroupElementExpression> powers,
+                                                   GroupElementPolicyFacts groupFacts,
+                                                   ZnElementPolicyFacts znFacts) {
+        PowProductExpression product = null;
+        for (PowerGroupElementExpression power : powers) {
+            GroupElement base = power.getLHS().calculateResult(groupFacts, znFacts);
+            BigInteger exponent = power.getRHS().calculateResult(groupFacts, znFacts).getInteger();
+            if (product == null) {
+                product = new PowProductExpression(base.getStructure());
+            }
+            product.op(base, exponent);
+        }
+        return product;
+    }
+
+    /**
+     * Evaluates the product of the given powers as a single simultaneous multi-exponentiation.
+     *
+     * @param powers the factors g_i^{x_i}
+     * @return \prod_{i} g_i^{x_i}
+     */
+    private static GroupElement multiExponentiation(List<PowerGroupElementExpression> powers,
+                                                    GroupElementPolicyFacts groupFacts,
+                                                    ZnElementPolicyFacts znFacts) {
+        GroupElement[] bases = new GroupElement[powers.size()];
+        BigInteger[] exponents = new BigInteger[powers.size()];
+        for (int i = 0; i < powers.size(); i++) {
+            bases[i] = powers.get(i).getLHS().calculateResult(groupFacts, znFacts);
+            exponents[i] = powers.get(i).getRHS().calculateResult(groupFacts, znFacts).getInteger();
+        }
+        return MultiExponentiation.compute(bases, exponents);
+    }
+
     @Override
     public String getOp() {
         return op;
@@ -29,11 +29,11 @@ public class ZnVariable implements ArithZnElementExpression, Variable {
 
     @Override
     public Zn.ZnElement calculateResult(GroupElementPolicyFacts groupFacts, ZnElementPolicyFacts znFacts) {
-        if (znFacts.getFacts().containsKey(name)) {
-            return znFacts.getFacts().get(name);
-        } else {
+        Zn.ZnElement value = znFacts.getFact(name);
+        if (value == null) {
             throw new IllegalArgumentException(name + " has no value");
         }
+        return value;
     }
 
     @Override
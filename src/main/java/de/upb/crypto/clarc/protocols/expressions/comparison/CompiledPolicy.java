@@ -0,0 +1,286 @@
+package de.upb.crypto.clarc.protocols.expressions.comparison;
+
+import de.upb.crypto.clarc.protocols.expressions.FactBatch;
+import de.upb.crypto.clarc.protocols.expressions.GroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.IndexedGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.IndexedZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.VariableSlots;
+import de.upb.crypto.clarc.protocols.expressions.ZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.arith.ArithGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ArithZnElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ExpressionOptimizer;
+import de.upb.crypto.clarc.protocols.expressions.arith.InverseGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ProductGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.Variable;
+import de.upb.crypto.clarc.protocols.expressions.collectionexpressions.CollectionExpression;
+import de.upb.crypto.clarc.protocols.expressions.collectionexpressions.IntervalZnExpression;
+import de.upb.crypto.craco.interfaces.policy.Policy;
+import de.upb.crypto.craco.interfaces.policy.PolicyFact;
+import de.upb.crypto.craco.interfaces.policy.ThresholdPolicy;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.Zn;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * A policy made of {@link ComparisonExpression}s that has been compiled for repeated evaluation.
+ * <p>
+ * Compilation ({@link #compile(Policy)}) walks the policy once:
+ * <ul>
+ * <li>All variables are assigned a slot ({@link #getSlots()}). Facts for {@link #isFulfilled(
+ *IndexedGroupElementPolicyFacts, IndexedZnElementPolicyFacts)} are stored by these slots, so evaluation neither
+ * filters nor merges fact collections. The variables of the compiled expressions are bound to their slot, so they
+ * read their value from the facts without any lookup. The expressions of the policy are not modified.</li>
+ * <li>Both sides of every comparison are optimized with an {@link ExpressionOptimizer}, so determined subterms are
+ * computed once. A group equation lhs = rhs is checked as lhs * rhs^(-1) = 1, which merges powers of common bases of
+ * both sides.</li>
+ * <li>Interval bounds are read once.</li>
+ * </ul>
+ * Supported are {@link ZnElementComparisonExpression}s and {@link GroupElementComparisonExpression}s with
+ * {@link EquationPrimitives#EQUAL} or {@link EquationPrimitives#NOT_EQUAL},
+ * {@link ZnElementInCollectionComparisonExpression}, {@link TautologyExpression} and {@link ThresholdPolicy}s of
+ * these. Later changes to the compiled policy do not affect the compiled form.
+ * <p>
+ * Instances are immutable and can be used by several threads concurrently.
+ */
+public final class CompiledPolicy {
+
+    /**
+     * Number of rows of a {@link FactBatch} that are evaluated by a single task
+     */
+    static final int CHUNK_SIZE = 64;
+
+    private final VariableSlots slots;
+    private final Node root;
+
+    private CompiledPolicy(VariableSlots slots, Node root) {
+        this.slots = slots;
+        this.root = root;
+    }
+
+    /**
+     * Compiles the given policy.
+     *
+     * @param policy the policy
+     * @return the compiled policy
+     * @throws IllegalArgumentException if the policy contains unsupported parts
+     */
+    public static CompiledPolicy compile(Policy policy) {
+        Set<Variable> variables = new HashSet<>();
+        collectVariables(policy, variables);
+        Set<String> names = new HashSet<>();
+        variables.forEach(variable -> names.add(variable.getName()));
+
+        VariableSlots slots = VariableSlots.of(names);
+        return new CompiledPolicy(slots, compile(policy, new ExpressionOptimizer(slots)));
+    }
+
+    private static void collectVariables(Policy policy, Set<Variable> result) {
+        if (policy instanceof ThresholdPolicy) {
+            for (Policy child : ((ThresholdPolicy) policy).getChildren()) {
+                collectVariables(child, result);
+            }
+        } else if (policy instanceof ComparisonExpression) {
+            ((ComparisonExpression) policy).getVariables(result);
+        }
+    }
+
+    private static Node compile(Policy policy, ExpressionOptimizer optimizer) {
+        if (policy instanceof TautologyExpression) {
+            return (groupFacts, znFacts) -> true;
+        }
+        if (policy instanceof ThresholdPolicy) {
+            ThresholdPolicy threshold = (ThresholdPolicy) policy;
+            List<Node> children = new ArrayList<>();
+            for (Policy child : threshold.getChildren()) {
+                children.add(compile(child, optimizer));
+            }
+            return new ThresholdNode(threshold.getThreshold(), children.toArray(new Node[0]));
+        }
+        if (policy instanceof ZnElementInCollectionComparisonExpression) {
+            ZnElementInCollectionComparisonExpression comparison = (ZnElementInCollectionComparisonExpression) policy;
+            CollectionExpression collection = comparison.getCollection();
+            if (!(collection instanceof IntervalZnExpression)) {
+                throw new IllegalArgumentException("Collections of type "
+                        + (collection == null ? "null" : collection.getClass().getName()) + " cannot be compiled");
+            }
+            IntervalZnExpression interval = (IntervalZnExpression) collection;
+            ArithZnElementExpression value = optimizer.optimize((ArithZnElementExpression) comparison.getLHS());
+            BigInteger lowerBound = interval.getLowerBound();
+            BigInteger upperBound = interval.getUpperBound();
+            return (groupFacts, znFacts) -> {
+                BigInteger v = value.calculateResult(groupFacts, znFacts).getInteger();
+                return lowerBound.compareTo(v) <= 0 && upperBound.compareTo(v) >= 0;
+            };
+        }
+        if (policy instanceof ZnElementComparisonExpression) {
+            ZnElementComparisonExpression comparison = (ZnElementComparisonExpression) policy;
+            boolean expectEqual = isEquality(comparison);
+            ArithZnElementExpression lhs = optimizer.optimize((ArithZnElementExpression) comparison.getLHS());
+            ArithZnElementExpression rhs = optimizer.optimize((ArithZnElementExpression) comparison.getRHS());
+            return (groupFacts, znFacts) -> {
+                Zn.ZnElement lhsValue = lhs.calculateResult(groupFacts, znFacts);
+                return lhsValue.equals(rhs.calculateResult(groupFacts, znFacts)) == expectEqual;
+            };
+        }
+        if (policy instanceof GroupElementComparisonExpression) {
+            GroupElementComparisonExpression comparison = (GroupElementComparisonExpression) policy;
+            boolean expectEqual = isEquality(comparison);
+            ArithGroupElementExpression quotient = optimizer.optimize(new ProductGroupElementExpression(
+                    (ArithGroupElementExpression) comparison.getLHS(),
+                    new InverseGroupElementExpression((ArithGroupElementExpression) comparison.getRHS())));
+            return (groupFacts, znFacts) -> {
+                GroupElement value = quotient.calculateResult(groupFacts, znFacts);
+                return value.isNeutralElement() == expectEqual;
+            };
+        }
+        throw new IllegalArgumentException("Policies of type " + policy.getClass().getName() + " cannot be compiled");
+    }
+
+    private static boolean isEquality(ArithComparisonExpression comparison) {
+        switch (comparison.getComparator()) {
+            case EQUAL:
+                return true;
+            case NOT_EQUAL:
+                return false;
+            default:
+                throw new IllegalArgumentException("Comparator " + comparison.getComparator() + " cannot be compiled");
+        }
+    }
+
+    /**
+     * @return the slots of all variables in the policy, which are expected by
+     * {@link #isFulfilled(IndexedGroupElementPolicyFacts, IndexedZnElementPolicyFacts)}
+     */
+    public VariableSlots getSlots() {
+        return slots;
+    }
+
+    /**
+     * Checks whether the policy is fulfilled.
+     *
+     * @param groupFacts values of the group variables, stored by the slots of {@link #getSlots()}
+     * @param znFacts    values of the Zn variables, stored by the slots of {@link #getSlots()}
+     * @return true iff the policy is fulfilled
+     * @throws IllegalArgumentException if the facts use different slots or a variable has no value
+     */
+    public boolean isFulfilled(IndexedGroupElementPolicyFacts groupFacts, IndexedZnElementPolicyFacts znFacts) {
+        if (!slots.equals(groupFacts.getSlots()) || !slots.equals(znFacts.getSlots())) {
+            throw new IllegalArgumentException("The facts must use the slots of the compiled policy");
+        }
+        return root.isFulfilled(groupFacts, znFacts);
+    }
+
+    /**
+     * Checks whether the policy is fulfilled. Equivalent to {@link Policy#isFulfilled(Collection)} of the compiled
+     * policy.
+     *
+     * @param facts the facts, containing group and Zn facts
+     * @return true iff the policy is fulfilled
+     */
+    public boolean isFulfilled(Collection<? extends PolicyFact> facts) {
+        GroupElementPolicyFacts groupFacts = TAUTOLOGY.getGroupFacts(facts);
+        ZnElementPolicyFacts znFacts = TAUTOLOGY.getZnFacts(facts);
+
+        GroupElement[] groupValues = new GroupElement[slots.size()];
+        Zn.ZnElement[] znValues = new Zn.ZnElement[slots.size()];
+        for (int i = 0; i < slots.size(); i++) {
+            groupValues[i] = groupFacts.getFact(slots.getName(i));
+            znValues[i] = znFacts.getFact(slots.getName(i));
+        }
+        return root.isFulfilled(new IndexedGroupElementPolicyFacts(slots, groupValues),
+                new IndexedZnElementPolicyFacts(slots, znValues));
+    }
+
+    /**
+     * Checks for every row of the given batch whether the policy is fulfilled.
+     * <p>
+     * The rows are evaluated in parallel chunks. Subterms that do not depend on variables have been evaluated during
+     * compilation and are shared by all rows.
+     *
+     * @param batch the fact sets. Columns for variables that do not occur in the policy are ignored.
+     * @return the set of indices of the rows that fulfill the policy. Rows in which a variable of the policy has no
+     * value are not contained.
+     */
+    public BitSet isFulfilled(FactBatch batch) {
+        Zn.ZnElement[][] znColumns = new Zn.ZnElement[slots.size()][];
+        GroupElement[][] groupColumns = new GroupElement[slots.size()][];
+        for (int i = 0; i < slots.size(); i++) {
+            znColumns[i] = batch.getZnColumn(slots.getName(i));
+            groupColumns[i] = batch.getGroupColumn(slots.getName(i));
+        }
+
+        boolean[] fulfilled = new boolean[batch.size()];
+        int chunks = (batch.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            Zn.ZnElement[] znValues = new Zn.ZnElement[slots.size()];
+            GroupElement[] groupValues = new GroupElement[slots.size()];
+            int end = Math.min(batch.size(), (chunk + 1) * CHUNK_SIZE);
+            for (int row = chunk * CHUNK_SIZE; row < end; row++) {
+                boolean complete = true;
+                for (int i = 0; i < slots.size(); i++) {
+                    znValues[i] = znColumns[i] == null ? null : znColumns[i][row];
+                    groupValues[i] = groupColumns[i] == null ? null : groupColumns[i][row];
+                    complete &= znValues[i] != null || groupValues[i] != null;
+                }
+                //Rows in which a variable of the policy has no value stay unfulfilled
+                if (complete) {
+                    fulfilled[row] = root.isFulfilled(new IndexedGroupElementPolicyFacts(slots, groupValues),
+                            new IndexedZnElementPolicyFacts(slots, znValues));
+                }
+            }
+        });
+
+        BitSet result = new BitSet(batch.size());
+        for (int row = 0; row < fulfilled.length; row++) {
+            if (fulfilled[row]) {
+                result.set(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Used to access the default methods of {@link ComparisonExpression} that filter fact collections
+     */
+    private static final ComparisonExpression TAUTOLOGY = new TautologyExpression();
+
+    /**
+     * A compiled part of the policy.
+     */
+    private interface Node {
+        boolean isFulfilled(GroupElementPolicyFacts groupFacts, ZnElementPolicyFacts znFacts);
+    }
+
+    private static final class ThresholdNode implements Node {
+        private final int threshold;
+        private final Node[] children;
+
+        private ThresholdNode(int threshold, Node[] children) {
+            this.threshold = threshold;
+            this.children = children;
+        }
+
+        @Override
+        public boolean isFulfilled(GroupElementPolicyFacts groupFacts, ZnElementPolicyFacts znFacts) {
+            int fulfilled = 0;
+            for (int i = 0; i < children.length && fulfilled < threshold; i++) {
+                //Stop early if the threshold cannot be reached anymore
+                if (fulfilled + children.length - i < threshold) {
+                    return false;
+                }
+                if (children[i].isFulfilled(groupFacts, znFacts)) {
+                    fulfilled++;
+                }
+            }
+            return fulfilled >= threshold;
+        }
+    }
+}
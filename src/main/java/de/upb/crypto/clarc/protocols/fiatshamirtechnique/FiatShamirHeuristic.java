@@ -1,11 +1,20 @@
 package de.upb.crypto.clarc.protocols.fiatshamirtechnique;
 
+import de.upb.crypto.clarc.protocols.arguments.AnnouncementRecoverableThreeWayAoK;
+import de.upb.crypto.clarc.protocols.arguments.BatchVerifiableThreeWayAoK;
 import de.upb.crypto.clarc.protocols.arguments.InteractiveThreeWayAoK;
 import de.upb.crypto.clarc.protocols.arguments.NonInteractiveAoK;
+import de.upb.crypto.clarc.protocols.arguments.SigmaProtocol;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirCompactProof;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProofView;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.clarc.protocols.parameters.Challenge;
 import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.clarc.protocols.serialization.ProtocolMessageCodec;
+import de.upb.crypto.clarc.protocols.simulator.SigmaProtocolTranscript;
+import de.upb.crypto.clarc.protocols.simulator.Transcript;
 import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
 import de.upb.crypto.math.hash.impl.ByteArrayAccumulator;
 import de.upb.crypto.math.interfaces.hash.ByteAccumulator;
@@ -15,7 +24,19 @@ import de.upb.crypto.math.serialization.Representation;
 import de.upb.crypto.math.serialization.annotations.AnnotatedRepresentationUtil;
 import de.upb.crypto.math.serialization.annotations.Represented;
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of the Fiat-Shamir heuristic as a non-interactive argument of knowledge ({@link NonInteractiveAoK}).
@@ -30,6 +51,14 @@ import java.util.Arrays;
  */
 public class FiatShamirHeuristic implements NonInteractiveAoK {
 
+    private final static Logger LOGGER = Logger.getLogger(FiatShamirHeuristic.class.getName());
+
+    /**
+     * Maximal number of bytes of an encoded proof that are copied at once to hash them with a hash function that does
+     * not support streaming (see {@link #getHashForEncodedAnnouncementAndAuxData(ByteBuffer, ByteBuffer[])})
+     */
+    private static final int HASH_CHUNK_SIZE = 8192;
+
     /**
      * The {@link InteractiveThreeWayAoK} that is made non-interactive.
      */
@@ -42,6 +71,12 @@ public class FiatShamirHeuristic implements NonInteractiveAoK {
     @Represented
     private HashFunction hashFunction;
 
+    /**
+     * Executor that the work for several proofs is spread across in {@link #verifyAll(Collection)}, null to use
+     * parallel streams.
+     */
+    private Executor executor = null;
+
     public FiatShamirHeuristic(InteractiveThreeWayAoK protocol, HashFunction hashFunction) {
         this.protocol = protocol;
         this.hashFunction = hashFunction;
@@ -80,17 +115,73 @@ public class FiatShamirHeuristic implements NonInteractiveAoK {
         return new FiatShamirProof(announcements, auxDataBytes, responses);
     }
 
+    /**
+     * <p>Generates a compact non-interactive proof of {@link #protocol}.</p>
+     * <p>
+     * Works like {@link #prove(UniqueByteRepresentable...)}, but the resulting {@link FiatShamirCompactProof} only
+     * contains the challenge and the responses. The verifier recomputes the announcements, hence {@link #protocol}
+     * must be an {@link AnnouncementRecoverableThreeWayAoK}.
+     *
+     * @param auxData possible additional data that influences the proof generation, see
+     *                {@link #prove(UniqueByteRepresentable...)}
+     * @return a {@link FiatShamirCompactProof} for the given {@code auxData}
+     */
+    public FiatShamirCompactProof proveCompact(UniqueByteRepresentable... auxData) {
+        if (!(protocol instanceof AnnouncementRecoverableThreeWayAoK)) {
+            throw new IllegalStateException("Compact proofs require a protocol that can recompute its announcements");
+        }
+        Announcement[] announcements = protocol.generateAnnouncements();
+        Challenge challenge = generateChallenge(announcements, auxData);
+        Response[] responses = protocol.generateResponses(challenge);
+
+        ByteArrayImplementation[] auxDataBytes = Arrays.stream(auxData)
+                .map(data -> new ByteArrayImplementation(data.getUniqueByteRepresentation()))
+                .toArray(ByteArrayImplementation[]::new);
+        return new FiatShamirCompactProof(challenge, auxDataBytes, responses);
+    }
+
+    /**
+     * <p>Generates an encoded non-interactive proof of {@link #protocol}.</p>
+     * <p>
+     * Works like {@link #prove(UniqueByteRepresentable...)}, but the announcements are encoded by the given codec and
+     * the challenge is the hash of the encoded announcements and {@code auxData} (see
+     * {@link #getHashForEncodedAnnouncementAndAuxData(ByteBuffer, ByteBuffer[])}). Hence the verifier
+     * ({@link #verify(FiatShamirProofView)}) can compute the challenge without decoding the announcements. Note that
+     * encoded proofs are not interchangeable with {@link FiatShamirProof}s, as their challenges are computed
+     * differently.
+     *
+     * @param codec   the codec for the messages of {@link #protocol}
+     * @param auxData possible additional data that influences the proof generation, see
+     *                {@link #prove(UniqueByteRepresentable...)}
+     * @return the encoded proof, which can be read via {@link FiatShamirProofView#wrap(ProtocolMessageCodec,
+     *ByteBuffer)}
+     */
+    public byte[] proveEncoded(ProtocolMessageCodec codec, UniqueByteRepresentable... auxData) {
+        byte[] announcements = codec.encodeAnnouncements(protocol.generateAnnouncements());
+        byte[][] auxDataBytes = Arrays.stream(auxData)
+                .map(UniqueByteRepresentable::getUniqueByteRepresentation)
+                .toArray(byte[][]::new);
+        Challenge challenge = protocol.createChallengeFromByteArray(getHashForEncodedAnnouncementAndAuxData(
+                ByteBuffer.wrap(announcements),
+                Arrays.stream(auxDataBytes).map(ByteBuffer::wrap).toArray(ByteBuffer[]::new)));
+        Response[] responses = protocol.generateResponses(challenge);
+        return codec.encodeProof(announcements, auxDataBytes, responses);
+    }
+
     /**
      * @return generates a challenge by hashing the given {@code announcements} and {@code auxData} using
      * {@link #hashFunction}.
      */
-    private Challenge generateChallenge(Announcement[] announcements, UniqueByteRepresentable... auxData) {
+    Challenge generateChallenge(Announcement[] announcements, UniqueByteRepresentable... auxData) {
         return protocol.createChallengeFromByteArray(
                 getHashForAnnouncementAndAuxData(announcements, auxData, hashFunction));
     }
 
     /**
      * Computes the hash of announcement and auxiliary information
+     * <p>
+     * If supported by the hash function, the data is hashed incrementally (see {@link StreamingHashAccumulator}), i.e.
+     * it is never copied into a single byte array.
      *
      * @param announcements first arguments of the hash function
      * @param auxData       second argument of the hash function
@@ -99,46 +190,254 @@ public class FiatShamirHeuristic implements NonInteractiveAoK {
      */
     public byte[] getHashForAnnouncementAndAuxData(Announcement[] announcements, UniqueByteRepresentable[] auxData,
                                                    HashFunction hashFunction) {
-        ByteAccumulator accumulator = new ByteArrayAccumulator();
+        boolean streaming = StreamingHashAccumulator.isSupported(hashFunction);
+        ByteAccumulator accumulator = streaming ? new StreamingHashAccumulator(hashFunction)
+                : new ByteArrayAccumulator();
+
+        for (Announcement announcement : announcements) {
+            announcement.updateAccumulator(accumulator);
+            accumulator.appendSeperator();
+        }
 
-        Arrays.stream(announcements).forEach(announcement -> {
-            accumulator.append(announcement.getUniqueByteRepresentation());
+        for (UniqueByteRepresentable data : auxData) {
+            data.updateAccumulator(accumulator);
             accumulator.appendSeperator();
-        });
+        }
+
+        return streaming ? accumulator.extractBytes() : hashFunction.hash(accumulator.extractBytes());
+    }
 
-        Arrays.stream(auxData).forEach(data -> {
-            accumulator.append(data.getUniqueByteRepresentation());
+    /**
+     * Computes the hash of encoded announcements and auxiliary information, which is the challenge of encoded proofs
+     * (see {@link #proveEncoded(ProtocolMessageCodec, UniqueByteRepresentable...)}).
+     *
+     * @param announcements the encoded announcements
+     * @param auxData       the auxiliary data
+     * @return H(announcements, auxData)
+     */
+    public byte[] getHashForEncodedAnnouncementAndAuxData(ByteBuffer announcements, ByteBuffer[] auxData) {
+        boolean streaming = StreamingHashAccumulator.isSupported(hashFunction);
+        ByteAccumulator accumulator = streaming ? new StreamingHashAccumulator(hashFunction)
+                : new ByteArrayAccumulator();
+
+        append(accumulator, announcements);
+        accumulator.appendSeperator();
+        for (ByteBuffer data : auxData) {
+            append(accumulator, data);
             accumulator.appendSeperator();
-        });
+        }
 
-        return hashFunction.hash(accumulator.extractBytes());
+        return streaming ? accumulator.extractBytes() : hashFunction.hash(accumulator.extractBytes());
+    }
+
+    /**
+     * Appends the remaining bytes of the buffer to the accumulator without changing the position of the buffer. A
+     * {@link StreamingHashAccumulator} reads the buffer directly, all other accumulators receive its content in chunks
+     * of at most {@link #HASH_CHUNK_SIZE} bytes, so the buffer is never copied as a whole.
+     */
+    private static void append(ByteAccumulator accumulator, ByteBuffer buffer) {
+        if (accumulator instanceof StreamingHashAccumulator) {
+            ((StreamingHashAccumulator) accumulator).append(buffer);
+            return;
+        }
+        ByteBuffer data = buffer.duplicate();
+        byte[] chunk = new byte[Math.min(HASH_CHUNK_SIZE, data.remaining())];
+        while (data.hasRemaining()) {
+            if (data.remaining() < chunk.length) {
+                chunk = new byte[data.remaining()];
+            }
+            data.get(chunk);
+            accumulator.append(chunk);
+        }
+    }
+
+    /**
+     * Verifies an encoded proof.
+     * <p>
+     * The challenge is recomputed from the encoded announcements. Afterwards, the responses and then the announcements
+     * are decoded and the verification equations of {@link #protocol} are checked.
+     *
+     * @param proof view of a proof generated by {@link #proveEncoded(ProtocolMessageCodec, UniqueByteRepresentable...)}
+     * @return true iff the proof is valid
+     */
+    public boolean verify(FiatShamirProofView proof) {
+        if (!protocol.equals(proof.getCodec().getProtocol())) {
+            throw new IllegalArgumentException("The proof was not encoded for the protocol of this scheme");
+        }
+        try {
+            Challenge challenge = protocol.createChallengeFromByteArray(
+                    getHashForEncodedAnnouncementAndAuxData(proof.getAnnouncementBytes(), proof.getAuxData()));
+            Response[] responses = proof.getResponses();
+            return protocol.verify(proof.getAnnouncements(), challenge, responses);
+        } catch (IllegalArgumentException | BufferUnderflowException | IndexOutOfBoundsException ex) {
+            return false;
+        }
     }
 
     @Override
     public boolean verify(Proof proof) {
+        if (proof instanceof FiatShamirCompactProof) {
+            return verifyCompact((FiatShamirCompactProof) proof);
+        }
         if (!(proof instanceof FiatShamirProof)) {
             throw new IllegalArgumentException("Wrong type of proof for this scheme!");
         }
-        FiatShamirProof fiatShamirTranscript = (FiatShamirProof) proof;
+        Transcript transcript = recreateTranscript((FiatShamirProof) proof);
+        if (transcript == null) {
+            return false;
+        }
+        return protocol.verify(transcript.getAnnouncements(), transcript.getChallenge(), transcript.getResponses());
+    }
+
+    /**
+     * Verifies a {@link FiatShamirCompactProof} by recomputing the announcements from challenge and responses and
+     * checking that they hash to the given challenge.
+     */
+    private boolean verifyCompact(FiatShamirCompactProof proof) {
+        if (!(protocol instanceof AnnouncementRecoverableThreeWayAoK)) {
+            throw new IllegalArgumentException("Compact proofs require a protocol that can recompute its " +
+                    "announcements");
+        }
+        try {
+            Challenge challenge = protocol.recreateChallenge(proof.getChallengeRepresentation());
+            Response[] responses = Arrays.stream(proof.getResponseRepresentations())
+                    .map(repr -> protocol.recreateResponse(repr))
+                    .toArray(Response[]::new);
+            Announcement[] announcements =
+                    ((AnnouncementRecoverableThreeWayAoK) protocol).recomputeAnnouncements(challenge, responses);
+            return challenge.equals(generateChallenge(announcements, proof.getAuxData()));
+        } catch (Exception ex) {
+            LOGGER.log(Level.FINE, "Failed to restore compact proof", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Verifies all given proofs at once.
+     * <p>
+     * First, the messages of all proofs are restored and their challenges are recomputed in parallel. Afterwards, if
+     * {@link #protocol} is a {@link BatchVerifiableThreeWayAoK}, all resulting transcripts are checked by a single
+     * randomized combined check. Only if that check fails, the invalid proofs are determined individually (see
+     * {@link BatchVerifiableThreeWayAoK#findInvalidTranscripts(List)}). Otherwise, the proofs are verified one by one.
+     *
+     * @param proofs the proofs to verify
+     * @return the verification result of every proof, in the iteration order of {@code proofs}
+     */
+    public boolean[] verifyAll(Collection<FiatShamirProof> proofs) {
+        List<FiatShamirProof> proofList = new ArrayList<>(proofs);
+        Transcript[] transcripts = new Transcript[proofList.size()];
+        runForAll(transcripts.length, i -> transcripts[i] = recreateTranscript(proofList.get(i)));
+
+        boolean[] result = new boolean[transcripts.length];
+        if (!(protocol instanceof BatchVerifiableThreeWayAoK)) {
+            runForAll(transcripts.length, i -> result[i] = transcripts[i] != null
+                    && protocol.verify(transcripts[i].getAnnouncements(), transcripts[i].getChallenge(),
+                    transcripts[i].getResponses()));
+            return result;
+        }
+
+        //Proofs that could not be restored are invalid, all others are checked together
+        List<Transcript> restoredTranscripts = new ArrayList<>();
+        List<Integer> restoredIndices = new ArrayList<>();
+        for (int i = 0; i < transcripts.length; i++) {
+            if (transcripts[i] != null) {
+                restoredTranscripts.add(transcripts[i]);
+                restoredIndices.add(i);
+                result[i] = true;
+            }
+        }
+        ((BatchVerifiableThreeWayAoK) protocol).findInvalidTranscripts(restoredTranscripts)
+                .forEach(i -> result[restoredIndices.get(i)] = false);
+        return result;
+    }
+
+    /**
+     * Runs the given task for all indices 0, ..., count - 1 concurrently, either on {@link #executor} or as a parallel
+     * stream if no executor is set. Returns after all tasks are done.
+     *
+     * @throws IllegalStateException if {@link #executor} is also used by {@link #protocol}
+     */
+    private void runForAll(int count, IntConsumer task) {
+        if (executor == null) {
+            IntStream.range(0, count).parallel().forEach(task);
+            return;
+        }
+        if (isProtocolExecutor(executor)) {
+            throw new IllegalStateException("The executor of the Fiat-Shamir heuristic must not be the executor of " +
+                    "the protocol");
+        }
+        try {
+            CompletableFuture.allOf(IntStream.range(0, count)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> task.accept(i), executor))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return true iff {@link #protocol} spreads its own work across the given executor
+     */
+    private boolean isProtocolExecutor(Executor executor) {
+        return protocol instanceof GeneralizedSchnorrProtocol
+                && ((GeneralizedSchnorrProtocol) protocol).getExecutor() == executor;
+    }
 
+    /**
+     * Sets the executor that the work for several proofs is spread across in {@link #verifyAll(Collection)}, i.e.
+     * every proof is restored and checked as a separate task. By default (null), parallel streams are used.
+     * <p>
+     * Note that the work for a single proof is done by {@link #protocol}, so its executor has to be configured
+     * separately (e.g. via {@link GeneralizedSchnorrProtocol#setExecutor(Executor)}). The two executors must not be
+     * the same bounded pool: every task of this executor waits for the tasks it submits to the executor of the
+     * protocol, so sharing a pool deadlocks once all its threads are waiting. Hence the executor of a
+     * {@link GeneralizedSchnorrProtocol} is rejected here and in {@link #verifyAll(Collection)}.
+     *
+     * @param executor the executor to use, or null for the default behavior
+     * @throws IllegalArgumentException if {@code executor} is the executor of the protocol
+     */
+    public void setExecutor(Executor executor) {
+        if (executor != null && isProtocolExecutor(executor)) {
+            throw new IllegalArgumentException("The executor of the Fiat-Shamir heuristic must not be the executor " +
+                    "of the protocol");
+        }
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Restores announcements and responses of the given proof and recomputes its challenge.
+     *
+     * @param proof the proof to restore the transcript for
+     * @return the transcript contained in {@code proof} or null if the proof can not be restored
+     */
+    private Transcript recreateTranscript(FiatShamirProof proof) {
         final Announcement[] announcements;
         final Response[] responses;
         final Challenge challenge;
         // This should eventually be changed, but if the recreation fails we get errors elsewhere since
         // it is set to null in that case
         try {
-            announcements = Arrays.stream(fiatShamirTranscript.getAnnouncementRepresentations())
+            announcements = Arrays.stream(proof.getAnnouncementRepresentations())
                     .map(repr -> protocol.recreateAnnouncement(repr))
                     .toArray(Announcement[]::new);
-            responses = Arrays.stream(fiatShamirTranscript.getResponseRepresentations())
+            responses = Arrays.stream(proof.getResponseRepresentations())
                     .map(repr -> protocol.recreateResponse(repr))
                     .toArray(Response[]::new);
-            challenge = generateChallenge(announcements, fiatShamirTranscript.getAuxData());
+            challenge = generateChallenge(announcements, proof.getAuxData());
         } catch (Exception ex) {
             ex.printStackTrace();
-            return false;
+            return null;
         }
-        return protocol.verify(announcements, challenge, responses);
+        return new SigmaProtocolTranscript(announcements, challenge, responses,
+                protocol instanceof SigmaProtocol ? (SigmaProtocol) protocol : null);
     }
 
     @Override
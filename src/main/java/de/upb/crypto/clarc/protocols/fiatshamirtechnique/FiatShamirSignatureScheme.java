@@ -1,13 +1,17 @@
 package de.upb.crypto.clarc.protocols.fiatshamirtechnique;
 
 import de.upb.crypto.clarc.protocols.arguments.InteractiveThreeWayAoK;
+import de.upb.crypto.clarc.protocols.arguments.PrecomputableThreeWayAoK;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirSignature;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirSigningKey;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirVerificationKey;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
 import de.upb.crypto.clarc.protocols.parameters.EmptyWitness;
+import de.upb.crypto.clarc.protocols.parameters.PrecomputedAnnouncement;
 import de.upb.crypto.clarc.protocols.parameters.Problem;
+import de.upb.crypto.clarc.protocols.parameters.Response;
 import de.upb.crypto.clarc.protocols.parameters.Witness;
 import de.upb.crypto.craco.common.MessageBlock;
 import de.upb.crypto.craco.common.RingElementPlainText;
@@ -18,13 +22,18 @@ import de.upb.crypto.craco.interfaces.signature.SignatureScheme;
 import de.upb.crypto.craco.interfaces.signature.SigningKey;
 import de.upb.crypto.craco.interfaces.signature.VerificationKey;
 import de.upb.crypto.math.interfaces.hash.HashFunction;
-import de.upb.crypto.math.interfaces.hash.UniqueByteRepresentable;
 import de.upb.crypto.math.serialization.Representation;
 import de.upb.crypto.math.serialization.annotations.AnnotatedRepresentationUtil;
 import de.upb.crypto.math.serialization.annotations.Represented;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of the Fiat-Shamir heuristic as a signature scheme ({@link SignatureScheme}).
@@ -33,6 +42,11 @@ import java.util.Objects;
  * message is given for the challenge generation in addtion to the annoucement.
  */
 public class FiatShamirSignatureScheme implements SignatureScheme {
+    /**
+     * Maximum number of verification keys whose verifiers are kept in {@link #verifierCache}.
+     */
+    private static final int VERIFIER_CACHE_SIZE = 32;
+
     /**
      * Function that provides a {@link InteractiveThreeWayAoK} instance given a {@link Problem} and a {@link Witness}.
      */
@@ -45,6 +59,18 @@ public class FiatShamirSignatureScheme implements SignatureScheme {
     @Represented
     private HashFunction hash;
 
+    /**
+     * Verifiers for recently used verification keys, keyed by the problems of the key. Least recently used entries
+     * are evicted first.
+     */
+    private final Map<List<Problem>, FiatShamirHeuristic> verifierCache = Collections.synchronizedMap(
+            new LinkedHashMap<List<Problem>, FiatShamirHeuristic>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Problem>, FiatShamirHeuristic> eldest) {
+                    return size() > VERIFIER_CACHE_SIZE;
+                }
+            });
+
     public FiatShamirSignatureScheme(ProtocolProvider protocolProvider, HashFunction hash) {
         this.protocolProvider = protocolProvider;
         this.hash = hash;
@@ -80,11 +106,61 @@ public class FiatShamirSignatureScheme implements SignatureScheme {
         return new FiatShamirSignature(sk.getInstance(), proof);
     }
 
+    /**
+     * Signs all given messages under the same signing key.
+     * <p>
+     * The {@link InteractiveThreeWayAoK} instance is set up only once for all messages. If it is a
+     * {@link PrecomputableThreeWayAoK}, all announcements are computed first in one parallel stage. Afterwards, the
+     * challenges (hashes) and responses for the single messages are computed in parallel. Otherwise, the messages are
+     * signed one after another.
+     *
+     * @param plainTexts messages to be signed
+     * @param signingKey private key the messages are to be signed under. Should be an instance of
+     *                   {@link FiatShamirSigningKey}
+     * @return the {@link FiatShamirSignature}s of the messages, in the same order as {@code plainTexts}
+     */
+    public List<FiatShamirSignature> signBatch(List<? extends PlainText> plainTexts, SigningKey signingKey) {
+        if (!(signingKey instanceof FiatShamirSigningKey)) {
+            throw new IllegalArgumentException("Not a valid signing key for this scheme!");
+        }
+
+        FiatShamirSigningKey sk = (FiatShamirSigningKey) signingKey;
+        InteractiveThreeWayAoK protocol = protocolProvider.getProtocolInstance(sk.getInstance(), sk.getWitness());
+        FiatShamirHeuristic fiatShamirHeuristic = new FiatShamirHeuristic(protocol, hash);
+
+        if (!(protocol instanceof PrecomputableThreeWayAoK)) {
+            return plainTexts.stream()
+                    .map(plainText -> new FiatShamirSignature(sk.getInstance(), fiatShamirHeuristic.prove(plainText)))
+                    .collect(Collectors.toList());
+        }
+        PrecomputableThreeWayAoK precomputableProtocol = (PrecomputableThreeWayAoK) protocol;
+
+        //Compute all announcements
+        List<PrecomputedAnnouncement> precomputedAnnouncements = IntStream.range(0, plainTexts.size()).parallel()
+                .mapToObj(i -> precomputableProtocol.precomputeAnnouncement())
+                .collect(Collectors.toList());
+
+        //Compute challenges and responses
+        return IntStream.range(0, plainTexts.size()).parallel()
+                .mapToObj(i -> {
+                    PlainText plainText = plainTexts.get(i);
+                    PrecomputedAnnouncement precomputed = precomputedAnnouncements.get(i);
+                    Announcement[] announcements = precomputed.getAnnouncements();
+                    Challenge challenge = fiatShamirHeuristic.generateChallenge(announcements, plainText);
+                    Response[] responses = precomputableProtocol.generateResponses(challenge, precomputed);
+                    FiatShamirProof proof = new FiatShamirProof(announcements, new ByteArrayImplementation[]{
+                            new ByteArrayImplementation(plainText.getUniqueByteRepresentation())}, responses);
+                    return new FiatShamirSignature(sk.getInstance(), proof);
+                })
+                .collect(Collectors.toList());
+    }
+
     /**
      * {@inheritDoc}
      * <p>
      * Internally, it setups up a {@link InteractiveThreeWayAoK} instance using {@code verificationKey} and verifies the
-     * {@link FiatShamirProof} contained in {@code signature}.
+     * {@link FiatShamirProof} contained in {@code signature}. The instance is reused for later verifications under a
+     * verification key with the same problems.
      *
      * @param plainText       a plaintext to verify {@code signature} with
      * @param signature       a {@link FiatShamirSignature} to be verified
@@ -103,26 +179,35 @@ public class FiatShamirSignatureScheme implements SignatureScheme {
         FiatShamirVerificationKey pk = (FiatShamirVerificationKey) verificationKey;
         FiatShamirSignature fiatShamirSignature = (FiatShamirSignature) signature;
 
-        //Recreate protocol from public key
-        InteractiveThreeWayAoK protocol =
-                protocolProvider.getProtocolInstance(pk.getInstance(), new Witness[]{new EmptyWitness("")});
-        FiatShamirHeuristic fiatShamirHeuristic = new FiatShamirHeuristic(protocol, hash);
-
-        // Recreate announcements
+        //The signature must be for the given plain text
         final FiatShamirProof proof = fiatShamirSignature.getProof();
-        Announcement[] announcementsFromSignature =
-                Arrays.stream(proof.getAnnouncementRepresentations())
-                        .map(protocol::recreateAnnouncement)
-                        .toArray(Announcement[]::new);
-
-        // Compute H(Announcement, Message) and recompute c = H(Announcement, auxData)
-        byte[] recomputedHash = fiatShamirHeuristic.getHashForAnnouncementAndAuxData(announcementsFromSignature,
-                new UniqueByteRepresentable[]{plainText}, hash);
-        byte[] originalHash = fiatShamirHeuristic
-                .getHashForAnnouncementAndAuxData(announcementsFromSignature, proof.getAuxData(), hash);
-        boolean plainTextIsValid = Arrays.equals(recomputedHash, originalHash);
-
-        return plainTextIsValid && fiatShamirHeuristic.verify(proof);
+        ByteArrayImplementation[] auxData = proof.getAuxData();
+        if (auxData.length != 1 || !Arrays.equals(auxData[0].getData(), plainText.getUniqueByteRepresentation())) {
+            return false;
+        }
+
+        //Verify the proof, i.e. recompute c = H(Announcement, Message) and check the transcript
+        return getVerifier(pk).verify(proof);
+    }
+
+    /**
+     * Returns the {@link FiatShamirHeuristic} to verify signatures under the given key. It is created on first use and
+     * cached afterwards.
+     *
+     * @param pk the verification key
+     * @return a {@link FiatShamirHeuristic} for the problems of {@code pk}
+     */
+    private FiatShamirHeuristic getVerifier(FiatShamirVerificationKey pk) {
+        List<Problem> instance = Arrays.asList(pk.getInstance().clone());
+        FiatShamirHeuristic verifier = verifierCache.get(instance);
+        if (verifier == null) {
+            //Recreate protocol from public key
+            InteractiveThreeWayAoK protocol =
+                    protocolProvider.getProtocolInstance(pk.getInstance(), new Witness[]{new EmptyWitness("")});
+            verifier = new FiatShamirHeuristic(protocol, hash);
+            verifierCache.put(instance, verifier);
+        }
+        return verifier;
     }
 
     @Override
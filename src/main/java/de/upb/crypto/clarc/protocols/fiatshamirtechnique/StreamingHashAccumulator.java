@@ -0,0 +1,72 @@
+package de.upb.crypto.clarc.protocols.fiatshamirtechnique;
+
+import de.upb.crypto.math.hash.impl.ByteArrayAccumulator;
+import de.upb.crypto.math.hash.impl.SHA256HashFunction;
+import de.upb.crypto.math.interfaces.hash.ByteAccumulator;
+import de.upb.crypto.math.interfaces.hash.HashFunction;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * {@link ByteAccumulator} that feeds all appended bytes directly into an incremental {@link MessageDigest}.
+ * <p>
+ * For a supported {@link HashFunction} h (see {@link #isSupported(HashFunction)}), {@link #extractBytes()} returns
+ * h(b), where b are the bytes that a {@link ByteArrayAccumulator} would have accumulated for the same calls. In contrast
+ * to a {@link ByteArrayAccumulator}, the accumulated bytes are never stored, so memory usage does not depend on the
+ * amount of data.
+ */
+public class StreamingHashAccumulator extends ByteAccumulator {
+
+    private final MessageDigest digest;
+
+    /**
+     * Creates an accumulator that computes the same hash as the given hash function.
+     *
+     * @param hashFunction a hash function such that {@link #isSupported(HashFunction)} is true
+     * @throws IllegalArgumentException if the hash function is not supported
+     */
+    public StreamingHashAccumulator(HashFunction hashFunction) {
+        if (!isSupported(hashFunction)) {
+            throw new IllegalArgumentException("Streaming is not supported for " + hashFunction.getClass().getName());
+        }
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @param hashFunction a hash function
+     * @return true iff the hash computed by this accumulator equals the hash computed by {@code hashFunction}
+     */
+    public static boolean isSupported(HashFunction hashFunction) {
+        return hashFunction != null && hashFunction.getClass() == SHA256HashFunction.class;
+    }
+
+    @Override
+    public void append(byte[] data) {
+        digest.update(data);
+    }
+
+    /**
+     * Appends the remaining bytes of the buffer without copying them. The position of the buffer is not changed.
+     *
+     * @param data the bytes to append
+     */
+    public void append(ByteBuffer data) {
+        digest.update(data.duplicate());
+    }
+
+    /**
+     * Completes the hash computation. Afterwards, the accumulator is reset.
+     *
+     * @return the hash of all bytes appended so far
+     */
+    @Override
+    public byte[] extractBytes() {
+        return digest.digest();
+    }
+}
@@ -0,0 +1,97 @@
+package de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl;
+
+import de.upb.crypto.clarc.protocols.arguments.AnnouncementRecoverableThreeWayAoK;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.Proof;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
+import de.upb.crypto.math.serialization.ListRepresentation;
+import de.upb.crypto.math.serialization.ObjectRepresentation;
+import de.upb.crypto.math.serialization.Representable;
+import de.upb.crypto.math.serialization.Representation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * A compact non-interactive proof that is produced by the {@link FiatShamirHeuristic}.
+ * <p>
+ * In contrast to {@link FiatShamirProof}, only the challenge and the responses are stored. The announcements are
+ * recomputed by the verifier from challenge and responses (see {@link AnnouncementRecoverableThreeWayAoK}), which
+ * then checks that hashing them together with {@link #auxData} yields the stored challenge.
+ */
+public class FiatShamirCompactProof implements Proof {
+    private Representation challengeRepresentation;
+
+    /**
+     * Additional data that is used to produce this proof. This data is used in the challenge generation.
+     */
+    private ByteArrayImplementation[] auxData;
+
+    private Representation[] responseRepresentations;
+
+    public FiatShamirCompactProof(Challenge challenge, ByteArrayImplementation[] auxData, Response[] responses) {
+        challengeRepresentation = challenge.getRepresentation();
+        this.auxData = auxData;
+        responseRepresentations = Arrays.stream(responses)
+                .map(Representable::getRepresentation).toArray(Representation[]::new);
+    }
+
+    public FiatShamirCompactProof(Representation representation) {
+        ObjectRepresentation obj = representation.obj();
+        challengeRepresentation = obj.get("challengeRepresentation");
+        this.auxData = obj.get("auxData").list().stream()
+                .map(ByteArrayImplementation::new)
+                .toArray(ByteArrayImplementation[]::new);
+        responseRepresentations = obj.get("responseRepresentations").list().getArray();
+    }
+
+    public Representation getChallengeRepresentation() {
+        return challengeRepresentation;
+    }
+
+    public ByteArrayImplementation[] getAuxData() {
+        return auxData;
+    }
+
+    public Representation[] getResponseRepresentations() {
+        return responseRepresentations;
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        final ObjectRepresentation representation = new ObjectRepresentation();
+        representation.put("challengeRepresentation", challengeRepresentation);
+        List<Representation> reprOfAuxData = Arrays.stream(auxData)
+                .map(ByteArrayImplementation::getRepresentation)
+                .collect(Collectors.toList());
+        representation.put("auxData", new ListRepresentation(reprOfAuxData));
+        representation.put("responseRepresentations", new ListRepresentation(responseRepresentations));
+        return representation;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || this.getClass() != obj.getClass()) {
+            return false;
+        }
+        FiatShamirCompactProof that = (FiatShamirCompactProof) obj;
+        return Objects.equals(challengeRepresentation, that.challengeRepresentation) &&
+                Arrays.equals(auxData, that.auxData) &&
+                Arrays.equals(responseRepresentations, that.responseRepresentations);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(challengeRepresentation);
+        result = 31 * result + Arrays.hashCode(auxData);
+        result = 31 * result + Arrays.hashCode(responseRepresentations);
+        return result;
+    }
+}
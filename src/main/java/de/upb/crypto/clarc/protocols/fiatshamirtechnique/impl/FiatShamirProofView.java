@@ -0,0 +1,126 @@
+package de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl;
+
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.clarc.protocols.serialization.ProtocolMessageCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only view of an encoded non-interactive proof produced by {@link FiatShamirHeuristic#proveEncoded}.
+ * <p>
+ * The view does not copy the underlying buffer, which may e.g. be a memory-mapped file. When the view is created,
+ * only the structure of the encoding is validated (see {@link ProtocolMessageCodec#skipAnnouncements(ByteBuffer)} and
+ * {@link ProtocolMessageCodec#skipResponses(ByteBuffer)}), so malformed proofs are rejected before any group element
+ * is decoded. The challenge of an encoded proof is the hash of the encoded announcements
+ * ({@link #getAnnouncementBytes()}) and the auxiliary data, hence the announcements are only decoded when the
+ * verification equations are checked ({@link #getAnnouncements()}).
+ * <p>
+ * The underlying buffer must not be modified while the view is used.
+ */
+public class FiatShamirProofView {
+
+    private final ProtocolMessageCodec codec;
+
+    private final ByteBuffer announcements;
+
+    private final ByteBuffer[] auxData;
+
+    private final ByteBuffer responses;
+
+    /**
+     * The decoded announcements, null if not yet decoded
+     */
+    private volatile Announcement[] decodedAnnouncements = null;
+
+    private FiatShamirProofView(ProtocolMessageCodec codec, ByteBuffer announcements, ByteBuffer[] auxData,
+                                ByteBuffer responses) {
+        this.codec = codec;
+        this.announcements = announcements;
+        this.auxData = auxData;
+        this.responses = responses;
+    }
+
+    /**
+     * Creates a view of the proof between the position and the limit of the given buffer. The position of the buffer
+     * is not changed.
+     *
+     * @param codec  the codec for the protocol of the proof
+     * @param buffer the encoded proof
+     * @return the view of the proof
+     * @throws IllegalArgumentException if the buffer does not contain exactly one well-formed proof
+     */
+    public static FiatShamirProofView wrap(ProtocolMessageCodec codec, ByteBuffer buffer) {
+        ByteBuffer proof = buffer.slice();
+
+        codec.skipAnnouncements(proof);
+        ByteBuffer announcements = section(proof, 0, proof.position());
+
+        ByteBuffer[] auxData = codec.readAuxDataViews(proof);
+
+        int responsesStart = proof.position();
+        codec.skipResponses(proof);
+        ByteBuffer responses = section(proof, responsesStart, proof.position());
+
+        if (proof.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected bytes after the encoded proof");
+        }
+        return new FiatShamirProofView(codec, announcements, auxData, responses);
+    }
+
+    /**
+     * @return a read-only buffer containing bytes [start, end) of the given buffer
+     */
+    private static ByteBuffer section(ByteBuffer buffer, int start, int end) {
+        ByteBuffer section = buffer.duplicate();
+        section.position(start);
+        section.limit(end);
+        return section.slice().asReadOnlyBuffer();
+    }
+
+    public ProtocolMessageCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * @return the encoded announcements, as written by
+     * {@link ProtocolMessageCodec#writeAnnouncements(ByteBuffer, Announcement[])}
+     */
+    public ByteBuffer getAnnouncementBytes() {
+        return announcements.duplicate();
+    }
+
+    /**
+     * @return the auxiliary data the proof was generated for
+     */
+    public ByteBuffer[] getAuxData() {
+        ByteBuffer[] result = new ByteBuffer[auxData.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = auxData[i].duplicate();
+        }
+        return result;
+    }
+
+    /**
+     * Decodes the announcements on first use.
+     *
+     * @return the announcements
+     * @throws IllegalArgumentException if a group element can not be decoded
+     */
+    public Announcement[] getAnnouncements() {
+        Announcement[] result = decodedAnnouncements;
+        if (result == null) {
+            result = codec.readAnnouncements(announcements.duplicate());
+            decodedAnnouncements = result;
+        }
+        return result.clone();
+    }
+
+    /**
+     * @return the decoded responses
+     */
+    public Response[] getResponses() {
+        return codec.readResponses(responses.duplicate());
+    }
+}
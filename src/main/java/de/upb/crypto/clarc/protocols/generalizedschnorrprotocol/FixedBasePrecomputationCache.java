@@ -0,0 +1,337 @@
+package de.upb.crypto.clarc.protocols.generalizedschnorrprotocol;
+
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of precomputed tables for fixed-base exponentiation.
+ * <p>
+ * For a base g and window size w, the table of g contains g^(d * 2^(w*k)) for all digits 1 &lt;= d &lt; 2^w and all
+ * windows k of the exponent. Then g^e is the product of one table entry per window of e, i.e. it costs about
+ * bitLength(e) / w group operations and no squarings.
+ * <p>
+ * A table costs about as much as bitLength(e) group operations, i.e. a few plain exponentiations. Hence tables are
+ * built lazily: {@link #getTable(GroupElement)} only builds the table of a base once the base has been requested
+ * {@link #getBuildThreshold()} times, so bases that are used once or twice (e.g. by a protocol for a single
+ * statement) never pay for a table. {@link #precompute(GroupElement)} builds a table right away for bases that are
+ * known to be reused.
+ * <p>
+ * The tables are kept in least-recently-used order. The memory budget is given as the total number of group elements
+ * that may be stored in all tables together. If adding a table exceeds the budget, the least recently used tables are
+ * evicted.
+ * <p>
+ * All methods are thread-safe.
+ */
+public class FixedBasePrecomputationCache {
+
+    /**
+     * Default window size w
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 4;
+
+    /**
+     * Default memory budget, i.e. maximum number of group elements in all tables
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 1 << 16;
+
+    /**
+     * Default number of requests for a base after which its table is built
+     */
+    public static final int DEFAULT_BUILD_THRESHOLD = 4;
+
+    /**
+     * Maximum number of bases without a table whose requests are counted. Counts of the least recently requested bases
+     * are dropped first.
+     */
+    private static final int MAX_COUNTED_BASES = 1024;
+
+    private static final FixedBasePrecomputationCache DEFAULT_CACHE = new FixedBasePrecomputationCache();
+
+    /**
+     * The tables, in access order (the least recently used table comes first)
+     */
+    private final LinkedHashMap<GroupElement, FixedBaseTable> tables = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Number of requests of bases that do not have a table yet, in access order
+     */
+    private final LinkedHashMap<GroupElement, Integer> requestCounts =
+            new LinkedHashMap<GroupElement, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<GroupElement, Integer> eldest) {
+                    return size() > MAX_COUNTED_BASES;
+                }
+            };
+
+    private final int windowSize;
+
+    private final int buildThreshold;
+
+    private long memoryBudget;
+
+    /**
+     * Number of group elements in all tables of {@link #tables}
+     */
+    private long usedMemory = 0;
+
+    public FixedBasePrecomputationCache() {
+        this(DEFAULT_MEMORY_BUDGET, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param memoryBudget maximum number of group elements that are stored in all tables together
+     * @param windowSize   the window size w. A table has about bitLength(groupSize) / w * (2^w - 1) entries.
+     */
+    public FixedBasePrecomputationCache(long memoryBudget, int windowSize) {
+        this(memoryBudget, windowSize, DEFAULT_BUILD_THRESHOLD);
+    }
+
+    /**
+     * @param memoryBudget   maximum number of group elements that are stored in all tables together
+     * @param windowSize     the window size w. A table has about bitLength(groupSize) / w * (2^w - 1) entries.
+     * @param buildThreshold number of requests for a base after which {@link #getTable(GroupElement)} builds its table
+     */
+    public FixedBasePrecomputationCache(long memoryBudget, int windowSize, int buildThreshold) {
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("The memory budget must not be negative");
+        }
+        if (windowSize < 1 || windowSize > 16) {
+            throw new IllegalArgumentException("The window size must be between 1 and 16");
+        }
+        if (buildThreshold < 1) {
+            throw new IllegalArgumentException("The build threshold must be positive");
+        }
+        this.memoryBudget = memoryBudget;
+        this.windowSize = windowSize;
+        this.buildThreshold = buildThreshold;
+    }
+
+    /**
+     * @return the cache that is used by {@link GeneralizedSchnorrProtocol}s unless specified otherwise
+     */
+    public static FixedBasePrecomputationCache getDefault() {
+        return DEFAULT_CACHE;
+    }
+
+    /**
+     * Returns the table for the given base. The table is built if the base has been requested
+     * {@link #getBuildThreshold()} times (including this request) and is not yet cached.
+     *
+     * @param base the fixed base g
+     * @return the table of g, or null if g has not been requested often enough or a table for g exceeds the memory
+     * budget
+     */
+    FixedBaseTable getTable(GroupElement base) {
+        synchronized (this) {
+            FixedBaseTable table = tables.get(base);
+            if (table != null) {
+                return table;
+            }
+            int requests = requestCounts.merge(base, 1, Integer::sum);
+            if (requests < buildThreshold) {
+                return null;
+            }
+        }
+        return buildTable(base);
+    }
+
+    /**
+     * Builds the table for the given base right away if it is not yet cached, regardless of how often the base has
+     * been requested. Use this for bases that are known to be used in many exponentiations.
+     *
+     * @param base the fixed base g
+     * @return true iff the table of g is cached, i.e. false if a table for g exceeds the memory budget
+     */
+    public boolean precompute(GroupElement base) {
+        synchronized (this) {
+            if (tables.get(base) != null) {
+                return true;
+            }
+        }
+        return buildTable(base) != null;
+    }
+
+    /**
+     * Builds the table for the given base and adds it to the cache.
+     *
+     * @return the table of the given base, or null if it exceeds the memory budget
+     */
+    private FixedBaseTable buildTable(GroupElement base) {
+        int bitLength = base.getStructure().size().bitLength();
+        synchronized (this) {
+            if (FixedBaseTable.getSize(bitLength, windowSize) > memoryBudget) {
+                return null;
+            }
+        }
+
+        //Computed outside of the lock, a concurrent computation of the same table is harmless
+        FixedBaseTable table = new FixedBaseTable(base, bitLength, windowSize);
+        synchronized (this) {
+            FixedBaseTable existing = tables.get(base);
+            if (existing != null) {
+                return existing;
+            }
+            tables.put(base, table);
+            requestCounts.remove(base);
+            usedMemory += table.getSize();
+            evict();
+            return table;
+        }
+    }
+
+    /**
+     * Sets the maximum number of group elements that are stored in all tables together. Tables are evicted if the
+     * new budget is smaller than the memory that is used currently.
+     *
+     * @param memoryBudget the new budget
+     */
+    public synchronized void setMemoryBudget(long memoryBudget) {
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("The memory budget must not be negative");
+        }
+        this.memoryBudget = memoryBudget;
+        evict();
+    }
+
+    public synchronized long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * @return the number of group elements in all cached tables
+     */
+    public synchronized long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /**
+     * @return the number of cached tables
+     */
+    public synchronized int getNumberOfTables() {
+        return tables.size();
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getBuildThreshold() {
+        return buildThreshold;
+    }
+
+    /**
+     * Removes all tables.
+     */
+    public synchronized void clear() {
+        tables.clear();
+        requestCounts.clear();
+        usedMemory = 0;
+    }
+
+    /**
+     * Evicts the least recently used tables until the used memory fits into the budget.
+     */
+    private void evict() {
+        Iterator<Map.Entry<GroupElement, FixedBaseTable>> iterator = tables.entrySet().iterator();
+        while (usedMemory > memoryBudget && iterator.hasNext()) {
+            usedMemory -= iterator.next().getValue().getSize();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Precomputed powers of a single base g.
+     */
+    static class FixedBaseTable {
+        private final GroupElement base;
+
+        /**
+         * powers[k][d - 1] = g^(d * 2^(w*k))
+         */
+        private final GroupElement[][] powers;
+
+        private final int windowSize;
+
+        private FixedBaseTable(GroupElement base, int bitLength, int windowSize) {
+            this.base = base;
+            this.windowSize = windowSize;
+            int numberOfWindows = (bitLength + windowSize - 1) / windowSize;
+            int digits = (1 << windowSize) - 1;
+            powers = new GroupElement[numberOfWindows][digits];
+
+            GroupElement windowBase = base;
+            for (int k = 0; k < numberOfWindows; k++) {
+                powers[k][0] = windowBase;
+                for (int d = 1; d < digits; d++) {
+                    powers[k][d] = powers[k][d - 1].op(windowBase);
+                }
+                windowBase = powers[k][digits - 1].op(windowBase);
+            }
+        }
+
+        private static long getSize(int bitLength, int windowSize) {
+            return (long) ((bitLength + windowSize - 1) / windowSize) * ((1 << windowSize) - 1);
+        }
+
+        private long getSize() {
+            return (long) powers.length * ((1 << windowSize) - 1);
+        }
+
+        /**
+         * Computes g^e using the table.
+         *
+         * @param exponent a non-negative exponent e
+         * @return g^e
+         */
+        GroupElement pow(BigInteger exponent) {
+            if (exponent.signum() < 0 || exponent.bitLength() > powers.length * windowSize) {
+                return base.pow(exponent);
+            }
+
+            GroupElement result = base.getStructure().getNeutralElement();
+            for (int k = 0; k * windowSize < exponent.bitLength(); k++) {
+                int digit = 0;
+                for (int b = 0; b < windowSize; b++) {
+                    if (exponent.testBit(k * windowSize + b)) {
+                        digit |= 1 << b;
+                    }
+                }
+                if (digit != 0) {
+                    result = result.op(powers[k][digit - 1]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Computes g^e using the table with one group operation per window, regardless of the digits of e. Hence,
+         * in contrast to {@link #pow(BigInteger)}, the number of group operations does not depend on e, which makes
+         * this suitable for secret exponents.
+         *
+         * @param exponent a non-negative exponent e
+         * @return g^e
+         */
+        GroupElement powFixedOperationCount(BigInteger exponent) {
+            if (exponent.signum() < 0 || exponent.bitLength() > powers.length * windowSize) {
+                return base.pow(exponent);
+            }
+
+            GroupElement neutralElement = base.getStructure().getNeutralElement();
+            GroupElement result = neutralElement;
+            for (int k = 0; k < powers.length; k++) {
+                int digit = 0;
+                for (int b = 0; b < windowSize; b++) {
+                    if (exponent.testBit(k * windowSize + b)) {
+                        digit |= 1 << b;
+                    }
+                }
+                result = result.op(digit != 0 ? powers[k][digit - 1] : neutralElement);
+            }
+            return result;
+        }
+    }
+}
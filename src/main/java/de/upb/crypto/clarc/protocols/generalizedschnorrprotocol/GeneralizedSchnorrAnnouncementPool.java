@@ -0,0 +1,140 @@
+package de.upb.crypto.clarc.protocols.generalizedschnorrprotocol;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of {@link GeneralizedSchnorrPrecomputedAnnouncement}s for a fixed statement, which is filled in the background.
+ * <p>
+ * Computing the announcements T_j = \prod_{i} g_{j,i} ^ t_i dominates the cost of the prover, but depends neither on
+ * the witness nor on the challenge. With a pool attached (see
+ * {@link GeneralizedSchnorrProtocol#setAnnouncementPool(GeneralizedSchnorrAnnouncementPool)}), the announcements are
+ * taken from the pool, so only the responses have to be computed online.
+ * <p>
+ * Whenever the number of pooled announcements drops below the refill threshold, the pool is filled up to its capacity
+ * by a background thread. If the pool runs empty, announcements are computed by the calling thread.
+ * Every pooled announcement is handed out at most once.
+ */
+public class GeneralizedSchnorrAnnouncementPool implements AutoCloseable {
+    private final static Logger LOGGER = Logger.getLogger(GeneralizedSchnorrAnnouncementPool.class.getName());
+
+    private final GeneralizedSchnorrProtocol protocol;
+
+    private final int capacity;
+
+    private final int refillThreshold;
+
+    private final ConcurrentLinkedQueue<GeneralizedSchnorrPrecomputedAnnouncement> pool = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of elements in {@link #pool} (size() of a {@link ConcurrentLinkedQueue} is not constant time)
+     */
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    /**
+     * true while a refill is scheduled or running
+     */
+    private final AtomicBoolean refilling = new AtomicBoolean(false);
+
+    private final ExecutorService refillExecutor;
+
+    /**
+     * Creates a pool for the statement of the given protocol and starts filling it.
+     *
+     * @param protocol        the protocol whose problems determine the statement. Its witness is not used.
+     * @param capacity        maximum number of pooled announcements
+     * @param refillThreshold the pool is refilled as soon as it contains less than this number of announcements
+     */
+    public GeneralizedSchnorrAnnouncementPool(GeneralizedSchnorrProtocol protocol, int capacity, int refillThreshold) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        if (refillThreshold < 1 || refillThreshold > capacity) {
+            throw new IllegalArgumentException("The refill threshold must be between 1 and the capacity");
+        }
+        this.protocol = protocol;
+        this.capacity = capacity;
+        this.refillThreshold = refillThreshold;
+        this.refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "generalized-schnorr-announcement-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleRefill();
+    }
+
+    /**
+     * Takes a precomputed announcement from the pool. If the pool is empty, a new one is computed right away.
+     *
+     * @return an unused precomputed announcement for the statement of this pool
+     */
+    public GeneralizedSchnorrPrecomputedAnnouncement take() {
+        GeneralizedSchnorrPrecomputedAnnouncement precomputed;
+        do {
+            precomputed = pool.poll();
+            if (precomputed != null) {
+                size.decrementAndGet();
+            }
+            // Announcements for outdated problems are dropped
+        } while (precomputed != null && precomputed.getPlan() != protocol.getProofPlan());
+
+        if (size.get() < refillThreshold) {
+            scheduleRefill();
+        }
+        return precomputed != null ? precomputed : protocol.precomputeAnnouncement();
+    }
+
+    /**
+     * @return the number of announcements that are currently pooled
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getRefillThreshold() {
+        return refillThreshold;
+    }
+
+    /**
+     * Stops refilling the pool and drops all pooled announcements.
+     */
+    @Override
+    public void close() {
+        refillExecutor.shutdownNow();
+        pool.clear();
+        size.set(0);
+    }
+
+    private void scheduleRefill() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refillExecutor.execute(() -> {
+                try {
+                    while (size.get() < capacity && !Thread.currentThread().isInterrupted()) {
+                        pool.add(protocol.precomputeAnnouncement());
+                        size.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Failed to precompute announcements", e);
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The pool has been closed
+            refilling.set(false);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package de.upb.crypto.clarc.protocols.generalizedschnorrprotocol;
+
+import de.upb.crypto.clarc.protocols.parameters.PrecomputedAnnouncement;
+import de.upb.crypto.math.structures.zn.Zp;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Announcements T_j = \prod_{i} g_{j,i} ^ t_i of a {@link GeneralizedSchnorrProtocol} together with the randomness t_i
+ * they were computed from.
+ * <p>
+ * Neither depends on the witness or the challenge, hence they can be computed ahead of time (see
+ * {@link GeneralizedSchnorrProtocol#precomputeAnnouncement()} and {@link GeneralizedSchnorrAnnouncementPool}).
+ * As answering two challenges with the same randomness reveals the witness, a precomputed announcement can only be
+ * used once.
+ */
+public class GeneralizedSchnorrPrecomputedAnnouncement implements PrecomputedAnnouncement {
+
+    /**
+     * The plan the announcements were computed for
+     */
+    private final GeneralizedSchnorrProofPlan plan;
+
+    /**
+     * The randomness t_i, ordered like the variables of {@link #plan}
+     */
+    private final Zp.ZpElement[] randomness;
+
+    private final GeneralizedSchnorrAnnouncement[] announcements;
+
+    private final AtomicBoolean used = new AtomicBoolean(false);
+
+    GeneralizedSchnorrPrecomputedAnnouncement(GeneralizedSchnorrProofPlan plan, Zp.ZpElement[] randomness,
+                                              GeneralizedSchnorrAnnouncement[] announcements) {
+        this.plan = plan;
+        this.randomness = randomness;
+        this.announcements = announcements;
+    }
+
+    /**
+     * Marks this precomputed announcement as used.
+     *
+     * @return the randomness t_i
+     * @throws IllegalStateException if this precomputed announcement has already been used
+     */
+    Zp.ZpElement[] consume() {
+        if (!used.compareAndSet(false, true)) {
+            throw new IllegalStateException("The precomputed announcement has already been used");
+        }
+        return randomness;
+    }
+
+    GeneralizedSchnorrProofPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * @return the announcements T_j
+     */
+    @Override
+    public GeneralizedSchnorrAnnouncement[] getAnnouncements() {
+        return announcements.clone();
+    }
+
+    /**
+     * @return true iff this precomputed announcement has already been used
+     */
+    @Override
+    public boolean isUsed() {
+        return used.get();
+    }
+}
@@ -0,0 +1,347 @@
+package de.upb.crypto.clarc.protocols.generalizedschnorrprotocol;
+
+import de.upb.crypto.clarc.protocols.expressions.SuperGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.SuperZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.arith.ArithGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.MultiExponentiation;
+import de.upb.crypto.clarc.protocols.expressions.arith.PowerGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ZnVariable;
+import de.upb.crypto.math.interfaces.structures.Group;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.interfaces.structures.GroupElementMixedExpression;
+import de.upb.crypto.math.structures.zn.Zn;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Flat, immutable form of the equations A_j = \prod_{i} g_{j,i} ^ x_i of a generalized Schnorr protocol.
+ * <p>
+ * The expression trees of the {@link GeneralizedSchnorrProblem}s are walked exactly once in
+ * {@link #compile(GeneralizedSchnorrProblem[])}. Afterwards, the variables x_i are identified by their index in
+ * {@link #getVariableNames()} and values for them are passed as arrays in that order. The bases g_{j,i}, the indices
+ * of their exponents and the values A_j are stored in plain arrays, so prover and verifier evaluate the equations
+ * without looking at the expressions again.
+ * <p>
+ * Powers with secret exponents (the randomness of the announcements and the witness) use the tables of a
+ * {@link FixedBasePrecomputationCache}, if given, and take a fixed number of group operations per table. The cache
+ * only builds the table of a base g_{j,i} after the base has been used a few times. Once a table is available, the
+ * plan keeps it, so later exponentiations neither access the cache nor depend on its eviction. A_j^(-1) is specific to
+ * the statement and never gets a table. Products with public exponents (verification) are computed as a single
+ * {@link MultiExponentiation} per equation.
+ */
+class GeneralizedSchnorrProofPlan {
+
+    /**
+     * Names of all variables in the equations, sorted lexicographically
+     */
+    private final String[] variableNames;
+
+    /**
+     * Map from variable names to their index in {@link #variableNames}
+     */
+    private final Map<String, Integer> variableIndices;
+
+    /**
+     * bases[j][k] is the k-th base of the j-th equation
+     */
+    private final GroupElement[][] bases;
+
+    /**
+     * exponentIndices[j][k] is the index of the variable that is the exponent of bases[j][k]
+     */
+    private final int[][] exponentIndices;
+
+    /**
+     * The values A_j of the left hand sides
+     */
+    private final GroupElement[] valuesOfA;
+
+    /**
+     * groups[j] is the group of the j-th equation, i.e. the group of A_j, T_j and all g_{j,i}
+     */
+    private final Group[] groups;
+
+    /**
+     * The inverses A_j^(-1)
+     */
+    private final GroupElement[] inversesOfA;
+
+    /**
+     * Cache that provides the tables of the bases, null to not use tables
+     */
+    private final FixedBasePrecomputationCache precomputationCache;
+
+    /**
+     * baseTables[tableOffsets[j] + k] is the table of bases[j][k], null if the plan has not obtained one yet
+     */
+    private final AtomicReferenceArray<FixedBasePrecomputationCache.FixedBaseTable> baseTables;
+
+    private final int[] tableOffsets;
+
+    private GeneralizedSchnorrProofPlan(String[] variableNames, Map<String, Integer> variableIndices,
+                                        GroupElement[][] bases, int[][] exponentIndices, GroupElement[] valuesOfA,
+                                        FixedBasePrecomputationCache precomputationCache) {
+        this.variableNames = variableNames;
+        this.variableIndices = Collections.unmodifiableMap(variableIndices);
+        this.bases = bases;
+        this.exponentIndices = exponentIndices;
+        this.valuesOfA = valuesOfA;
+        this.groups = new Group[valuesOfA.length];
+        this.inversesOfA = new GroupElement[valuesOfA.length];
+        for (int j = 0; j < valuesOfA.length; j++) {
+            groups[j] = valuesOfA[j].getStructure();
+            inversesOfA[j] = valuesOfA[j].inv();
+        }
+
+        this.precomputationCache = precomputationCache;
+        this.tableOffsets = new int[bases.length];
+        int numberOfBases = 0;
+        for (int j = 0; j < bases.length; j++) {
+            tableOffsets[j] = numberOfBases;
+            numberOfBases += bases[j].length;
+        }
+        this.baseTables = new AtomicReferenceArray<>(numberOfBases);
+    }
+
+    /**
+     * Evaluates all constant parts of the given problems and collects their variables.
+     *
+     * @param problems            the problems A_j = \prod_{i} g_{j,i} ^ x_i
+     * @param precomputationCache cache for tables of the fixed bases g_{j,i}, may be null
+     * @return the plan for the given problems
+     */
+    static GeneralizedSchnorrProofPlan compile(GeneralizedSchnorrProblem[] problems,
+                                               FixedBasePrecomputationCache precomputationCache) {
+        SuperGroupElementPolicyFacts groupFacts = new SuperGroupElementPolicyFacts();
+        SuperZnElementPolicyFacts znFacts = new SuperZnElementPolicyFacts();
+
+        TreeSet<String> names = new TreeSet<>();
+        for (GeneralizedSchnorrProblem problem : problems) {
+            for (ArithGroupElementExpression factor : problem.getRHS().getElements()) {
+                names.add(((ZnVariable) ((PowerGroupElementExpression) factor).getRHS()).getName());
+            }
+        }
+        String[] variableNames = names.toArray(new String[0]);
+        HashMap<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < variableNames.length; i++) {
+            indices.put(variableNames[i], i);
+        }
+
+        GroupElement[][] bases = new GroupElement[problems.length][];
+        int[][] exponentIndices = new int[problems.length][];
+        GroupElement[] valuesOfA = new GroupElement[problems.length];
+        for (int j = 0; j < problems.length; j++) {
+            List<ArithGroupElementExpression> factors = problems[j].getRHS().getElements();
+            bases[j] = new GroupElement[factors.size()];
+            exponentIndices[j] = new int[factors.size()];
+            for (int k = 0; k < factors.size(); k++) {
+                PowerGroupElementExpression factor = (PowerGroupElementExpression) factors.get(k);
+                bases[j][k] = factor.getLHS().calculateResult(groupFacts, znFacts);
+                exponentIndices[j][k] = indices.get(((ZnVariable) factor.getRHS()).getName());
+            }
+            valuesOfA[j] = problems[j].getProblemEquation().getLHS().calculateResult(groupFacts, znFacts);
+        }
+
+        return new GeneralizedSchnorrProofPlan(variableNames, indices, bases, exponentIndices, valuesOfA,
+                precomputationCache);
+    }
+
+    /**
+     * @return the number of equations m
+     */
+    int getNumberOfEquations() {
+        return bases.length;
+    }
+
+    /**
+     * @return the number of (distinct) variables n
+     */
+    int getNumberOfVariables() {
+        return variableNames.length;
+    }
+
+    /**
+     * @return the names of the variables. Arrays of values for the variables are expected in this order.
+     */
+    String[] getVariableNames() {
+        return variableNames.clone();
+    }
+
+    /**
+     * @return the names of the variables as an unmodifiable set
+     */
+    Set<String> getVariableSet() {
+        return variableIndices.keySet();
+    }
+
+    /**
+     * @param values map from variable names to values
+     * @return true iff the map contains a value for every variable
+     */
+    boolean hasValuesForAllVariables(Map<String, ?> values) {
+        for (String name : variableNames) {
+            if (values.get(name) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param i index of a variable
+     * @return the name of the i-th variable
+     */
+    String getVariableName(int i) {
+        return variableNames[i];
+    }
+
+    /**
+     * @param name name of a variable
+     * @return the index of the variable, or -1 if there is no such variable
+     */
+    int indexOf(String name) {
+        Integer index = variableIndices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param j index of an equation
+     * @return the group of the j-th equation
+     */
+    Group getGroup(int j) {
+        return groups[j];
+    }
+
+    /**
+     * @param j index of an equation
+     * @return A_j
+     */
+    GroupElement getValueOfA(int j) {
+        return valuesOfA[j];
+    }
+
+    /**
+     * Orders the given values according to {@link #getVariableNames()}.
+     *
+     * @param values map from variable names to values
+     * @return an array containing the value of the i-th variable at position i
+     * @throws IllegalArgumentException if there is a variable without value
+     */
+    Zn.ZnElement[] toVector(Map<String, ? extends Zn.ZnElement> values) {
+        Zn.ZnElement[] vector = new Zn.ZnElement[variableNames.length];
+        for (int i = 0; i < variableNames.length; i++) {
+            vector[i] = values.get(variableNames[i]);
+            if (vector[i] == null) {
+                throw new IllegalArgumentException(variableNames[i] + " has no value");
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Computes \prod_{i} g_{j,i} ^ e_i for secret exponents e_i, i.e. powers using a table take a fixed number of
+     * group operations.
+     * <p>
+     * Powers of bases with a table are computed right away, so this should be called by the task that evaluates the
+     * result.
+     *
+     * @param j         index of the equation
+     * @param exponents values e_i of the variables, ordered according to {@link #getVariableNames()}
+     * @return the (not yet fully evaluated) product
+     */
+    GroupElementMixedExpression multiExponentiation(int j, Zn.ZnElement[] exponents) {
+        Product product = new Product();
+        for (int k = 0; k < bases[j].length; k++) {
+            product.op(bases[j][k], getTable(j, k), exponents[exponentIndices[j][k]]);
+        }
+        return product.toExpression();
+    }
+
+    /**
+     * Computes \prod_{i} g_{j,i} ^ e_i * A_j ^ (-c) for public exponents e_i and c, e.g. responses and challenge, as a
+     * single simultaneous multi-exponentiation.
+     * <p>
+     * The product is computed right away, so this should be called by the task that evaluates the result.
+     *
+     * @param j         index of the equation
+     * @param exponents values e_i of the variables, ordered according to {@link #getVariableNames()}
+     * @param c         the exponent of A_j^(-1)
+     * @return the product
+     */
+    GroupElementMixedExpression multiExponentiation(int j, Zn.ZnElement[] exponents, Zn.ZnElement c) {
+        GroupElement[] productBases = Arrays.copyOf(bases[j], bases[j].length + 1);
+        BigInteger[] productExponents = new BigInteger[productBases.length];
+        for (int k = 0; k < bases[j].length; k++) {
+            productExponents[k] = exponents[exponentIndices[j][k]].getInteger();
+        }
+        productBases[bases[j].length] = inversesOfA[j];
+        productExponents[bases[j].length] = c.getInteger();
+        return new GroupElementMixedExpression(
+                MultiExponentiation.compute(productBases, productExponents).asPowProductExpression());
+    }
+
+    /**
+     * Computes \prod_{i} g_{j,i} ^ e_i * A_j ^ (-1)
+     *
+     * @param j         index of the equation
+     * @param exponents values e_i of the variables, ordered according to {@link #getVariableNames()}
+     * @return the (not yet evaluated) product, which is the neutral element iff the j-th equation is fulfilled
+     */
+    GroupElementMixedExpression quotient(int j, Zn.ZnElement[] exponents) {
+        return multiExponentiation(j, exponents)
+                .op(new GroupElementMixedExpression(inversesOfA[j].asPowProductExpression()));
+    }
+
+    /**
+     * Returns the table of the k-th base of the j-th equation. Until the plan has obtained the table, the request is
+     * passed to the cache, which builds the table once the base has been used often enough.
+     *
+     * @return the table, or null if there is none (yet)
+     */
+    private FixedBasePrecomputationCache.FixedBaseTable getTable(int j, int k) {
+        FixedBasePrecomputationCache.FixedBaseTable table = baseTables.get(tableOffsets[j] + k);
+        if (table == null && precomputationCache != null) {
+            table = precomputationCache.getTable(bases[j][k]);
+            if (table != null) {
+                baseTables.set(tableOffsets[j] + k, table);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Product of powers of fixed bases with secret exponents. Powers of bases with a table are computed right away
+     * with a fixed number of group operations, all others are collected in an expression.
+     */
+    private static class Product {
+        private GroupElement precomputed = null;
+        private GroupElementMixedExpression expression = null;
+
+        private void op(GroupElement base, FixedBasePrecomputationCache.FixedBaseTable table, Zn.ZnElement exponent) {
+            if (table != null) {
+                GroupElement power = table.powFixedOperationCount(exponent.getInteger());
+                precomputed = precomputed == null ? power : precomputed.op(power);
+            } else {
+                GroupElementMixedExpression power =
+                        new GroupElementMixedExpression(base.asPowProductExpression()).pow(exponent);
+                expression = expression == null ? power : expression.op(power);
+            }
+        }
+
+        private GroupElementMixedExpression toExpression() {
+            if (precomputed == null) {
+                return expression;
+            }
+            GroupElementMixedExpression result = new GroupElementMixedExpression(precomputed.asPowProductExpression());
+            return expression == null ? result : expression.op(result);
+        }
+    }
+}
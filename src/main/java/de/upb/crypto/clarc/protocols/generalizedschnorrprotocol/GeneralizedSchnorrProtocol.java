@@ -1,21 +1,33 @@
 package de.upb.crypto.clarc.protocols.generalizedschnorrprotocol;
 
+import de.upb.crypto.clarc.protocols.arguments.AnnouncementRecoverableThreeWayAoK;
+import de.upb.crypto.clarc.protocols.arguments.BatchVerifiableThreeWayAoK;
+import de.upb.crypto.clarc.protocols.arguments.PrecomputableThreeWayAoK;
 import de.upb.crypto.clarc.protocols.arguments.SigmaProtocol;
 import de.upb.crypto.clarc.protocols.expressions.SimpleZnElementPolicyFacts;
-import de.upb.crypto.clarc.protocols.expressions.SuperGroupElementPolicyFacts;
 import de.upb.crypto.clarc.protocols.expressions.ZnElementPolicyFacts;
-import de.upb.crypto.clarc.protocols.expressions.arith.Variable;
 import de.upb.crypto.clarc.protocols.parameters.*;
 import de.upb.crypto.clarc.protocols.simulator.SpecialHonestVerifierSimulator;
-import de.upb.crypto.math.interfaces.structures.FutureGroupElement;
+import de.upb.crypto.clarc.protocols.simulator.Transcript;
+import de.upb.crypto.math.interfaces.structures.Group;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.interfaces.structures.GroupElementMixedExpression;
+import de.upb.crypto.math.serialization.ListRepresentation;
 import de.upb.crypto.math.serialization.Representation;
 import de.upb.crypto.math.serialization.StandaloneRepresentable;
 import de.upb.crypto.math.serialization.annotations.AnnotatedRepresentationUtil;
 import de.upb.crypto.math.serialization.annotations.Represented;
+import de.upb.crypto.math.structures.zn.Zn;
 import de.upb.crypto.math.structures.zn.Zp;
 
 import java.math.BigInteger;
+import java.security.SecureRandom;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
 import java.util.logging.Logger;
 
 /**
@@ -23,7 +35,14 @@ import java.util.logging.Logger;
  * These elements, called witnesses, fulfill the equation A_j  = \prod_{i=1}_{n} (g_{j,i}^x_i )
  * for 1 &lt;= j &lt;= m, A_j, g_j,i \in G_j for all 1 &lt;= i &lt;= n, 1 &lt;= j &lt;= m
  */
-public class GeneralizedSchnorrProtocol extends SigmaProtocol implements StandaloneRepresentable {
+public class GeneralizedSchnorrProtocol extends SigmaProtocol implements BatchVerifiableThreeWayAoK,
+        AnnouncementRecoverableThreeWayAoK, PrecomputableThreeWayAoK, StandaloneRepresentable {
+
+    /**
+     * Bit length of the random exponents used to combine the verification equations in {@link #verifyBatch(List)}.
+     * An invalid batch is accepted with probability at most 2^-(BATCH_EXPONENT_BIT_LENGTH - 1).
+     */
+    private static final int BATCH_EXPONENT_BIT_LENGTH = 128;
 
     /**
      * Map from variables in the equations to concrete values
@@ -31,9 +50,12 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
     private GeneralizedSchnorrWitnessNew witnessMapping;
 
     /**
-     * Map from variables in the equations to random blinding values
+     * Random blinding values for the variables in the equations, ordered like the variables of the
+     * {@link GeneralizedSchnorrProofPlan}. Only used by the stateful {@link #generateAnnouncements()} and
+     * {@link #generateResponses(Challenge)}, concurrent runs keep them in a
+     * {@link de.upb.crypto.clarc.protocols.arguments.ProverSession} instead.
      */
-    private Map<String, Zp.ZpElement> randomValues;
+    private Zp.ZpElement[] randomValues;
 
     @Represented
     private Zp zp;
@@ -46,6 +68,26 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
      */
     private Boolean isFulfilled = null;
 
+    /**
+     * Compiled form of the problems, null if not yet compiled. See {@link #getProofPlan()}.
+     */
+    private volatile GeneralizedSchnorrProofPlan proofPlan = null;
+
+    /**
+     * Cache for fixed-base precomputation of the bases in the problems, null to disable precomputation
+     */
+    private FixedBasePrecomputationCache precomputationCache = FixedBasePrecomputationCache.getDefault();
+
+    /**
+     * Pool that {@link #generateAnnouncements()} takes its announcements from, null to compute them on demand
+     */
+    private GeneralizedSchnorrAnnouncementPool announcementPool = null;
+
+    /**
+     * Executor the equations are evaluated on, null to use the common {@link ForkJoinPool}
+     */
+    private Executor executor = null;
+
     /**
      * Constructor for a generalized Schnorr Protocol, proving knowledge for the relation A_j = g_j,i ^ x_i
      *
@@ -123,16 +165,13 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
             return this.isFulfilled = false;
 
         //Compute RHS * LHS^(-1)
-        FutureGroupElement[] results = new FutureGroupElement[problems.length];
-        for (int j = 0; j < problems.length; j++) {
-            GeneralizedSchnorrProblem gsProb = (GeneralizedSchnorrProblem) problems[j];
-            results[j] = gsProb.getRHS().resultAsEfficientExpression(new SuperGroupElementPolicyFacts(), witnessMapping)
-                    .op(gsProb.getValueOfA().inv()).evaluateConcurrent();
-        }
+        GeneralizedSchnorrProofPlan plan = getProofPlan();
+        Zn.ZnElement[] witnessValues = plan.toVector(witnessMapping.getMap());
+        GroupElement[] results = evaluate(plan.getNumberOfEquations(), j -> plan.quotient(j, witnessValues), executor);
 
         //Make sure it returns 1
         for (int j = 0; j < problems.length; j++) {
-            if (!results[j].get().isNeutralElement())
+            if (!results[j].isNeutralElement())
                 return this.isFulfilled = false;
         }
         return this.isFulfilled = true;
@@ -142,57 +181,71 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
      * Generates the announcements, choosing randomness internally.
      * T_j = \prod {i=1}^{n} g_{j,i}^t_i
      * for more information see super class
+     * <p>
+     * If an announcement pool is set, the announcements are taken from the pool.
      *
      * @return an array of m announcements, where m is the number of Problems and number of groups used
      */
     @Override
     public Announcement[] generateAnnouncements() {
-        Zp zp = new Zp(this.pp.getP());
        /*if (Arrays.stream(super.witnesses).anyMatch(w -> !(w instanceof GeneralizedSchnorrWitness))) {
             throw new IllegalArgumentException("The given Witness is not an instance of a generalized Schnorr " +
                     "witness");
         }*/
-        if (Arrays.stream(super.problems).anyMatch(p -> !(p instanceof GeneralizedSchnorrProblem))) {
-            throw new IllegalArgumentException("The given Problem is not an instance of a generalized Schnorr " +
-                    "problem");
+        GeneralizedSchnorrAnnouncementPool pool = announcementPool;
+        return generateAnnouncements(pool != null ? pool.take() : precomputeAnnouncement());
+    }
+
+    /**
+     * Uses the given precomputed announcement as the announcements of this protocol run, i.e. the next call of
+     * {@link #generateResponses(Challenge)} uses its randomness.
+     *
+     * @param precomputed an unused announcement precomputed for the problems of this protocol
+     * @return the announcements T_j of {@code precomputed}
+     * @throws IllegalArgumentException if {@code precomputed} was computed for different problems
+     * @throws IllegalStateException    if {@code precomputed} has already been used
+     */
+    public GeneralizedSchnorrAnnouncement[] generateAnnouncements(GeneralizedSchnorrPrecomputedAnnouncement precomputed) {
+        if (precomputed.getPlan() != getProofPlan()) {
+            throw new IllegalArgumentException("The precomputed announcement does not belong to the problems of " +
+                    "this protocol");
         }
+        this.randomValues = precomputed.consume();
+        return precomputed.getAnnouncements();
+    }
 
-        //Creates an array of size m = #Problems
-        GeneralizedSchnorrProblem[] gsProblem = Arrays.stream(super.problems).map(p -> (GeneralizedSchnorrProblem) p)
-                .toArray(GeneralizedSchnorrProblem[]::new);
-        //Collect variables
-        HashSet<String> variables = getVariables();
+    /**
+     * Chooses random values t_i and computes the announcements T_j = \prod {i=1}^{n} g_{j,i}^t_i without changing the
+     * state of this protocol. This neither requires the witness nor the challenge, hence it can be done ahead of time
+     * (offline).
+     *
+     * @return the announcements together with the randomness they were computed from
+     */
+    @Override
+    public GeneralizedSchnorrPrecomputedAnnouncement precomputeAnnouncement() {
+        GeneralizedSchnorrProofPlan plan = getProofPlan();
 
         //Choose random values to blind variables with
-        this.randomValues = new HashMap<>();
-        for (String var : variables) {
-            this.randomValues.put(var, zp.getUniformlyRandomElement());
+        Zp.ZpElement[] randomness = new Zp.ZpElement[plan.getNumberOfVariables()];
+        for (int i = 0; i < randomness.length; i++) {
+            randomness[i] = zp.getUniformlyRandomElement();
         }
 
-        //Wrap random values into Facts for convenient calculation
-        ZnElementPolicyFacts facts = mapToFacts(this.randomValues);
-
-        //Calculate the T_j
-        FutureGroupElement[] futureAnnouncements = new FutureGroupElement[gsProblem.length];
-        for (int j = 0; j < gsProblem.length; j++) {
-            futureAnnouncements[j] = gsProblem[j].getRHS() //compute using random assignments for the variables
-                    .resultAsEfficientExpression(new SuperGroupElementPolicyFacts(), facts)
-                    .evaluateConcurrent();
-        }
+        //Calculate the T_j using random assignments for the variables
+        GroupElement[] announcements = evaluate(plan.getNumberOfEquations(),
+                j -> plan.multiExponentiation(j, randomness), executor);
 
         //Collect results
-        GeneralizedSchnorrAnnouncement[] gsAnnouncements = new GeneralizedSchnorrAnnouncement[gsProblem.length];
-        for (int j = 0; j < gsProblem.length; j++) {
-            gsAnnouncements[j] = new GeneralizedSchnorrAnnouncement(futureAnnouncements[j].get());
+        GeneralizedSchnorrAnnouncement[] gsAnnouncements = new GeneralizedSchnorrAnnouncement[announcements.length];
+        for (int j = 0; j < announcements.length; j++) {
+            gsAnnouncements[j] = new GeneralizedSchnorrAnnouncement(announcements[j]);
         }
 
-        return gsAnnouncements;
+        return new GeneralizedSchnorrPrecomputedAnnouncement(plan, randomness, gsAnnouncements);
     }
 
     protected static ZnElementPolicyFacts mapToFacts(Map<String, Zp.ZpElement> values) {
-        HashMap<String, Zp.ZpElement> factsFormat = new HashMap<>();
-        values.forEach(factsFormat::put);
-        return new SimpleZnElementPolicyFacts(factsFormat);
+        return new SimpleZnElementPolicyFacts(values);
     }
 
     /**
@@ -214,9 +267,84 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
      * @return an array of n responses, one for each witness.
      */
     public GeneralizedSchnorrResponse[] generateResponses(Challenge challenge) {
+        return toNamedResponses(computeResponseValues(challenge, consumeRandomValues()));
+    }
+
+    /**
+     * Computes the responses s_i = x_i * c + t_i for the given precomputed announcement, where t_i is its randomness.
+     * In contrast to {@link #generateResponses(Challenge)}, this does not depend on or change the state of this
+     * protocol.
+     *
+     * @param challenge   the challenge c
+     * @param precomputed an unused announcement that was precomputed for the problems of this protocol
+     * @return an array of n responses, one for each witness.
+     * @throws IllegalStateException if {@code precomputed} has already been used
+     */
+    @Override
+    public GeneralizedSchnorrResponse[] generateResponses(Challenge challenge, PrecomputedAnnouncement precomputed) {
+        return toNamedResponses(computeResponseValues(challenge, consumeRandomness(precomputed)));
+    }
+
+    /**
+     * Like {@link #generateResponses(Challenge)}, but returns the responses as a single
+     * {@link GeneralizedSchnorrResponseVector} in the canonical order of the variables. Verification accepts both
+     * forms.
+     *
+     * @param challenge the challenge chosen by the verifier
+     * @return the responses s_i, ordered like the variables of the {@link GeneralizedSchnorrProofPlan}
+     */
+    public GeneralizedSchnorrResponseVector generateResponseVector(Challenge challenge) {
+        return new GeneralizedSchnorrResponseVector(computeResponseValues(challenge, consumeRandomValues()));
+    }
+
+    /**
+     * Like {@link #generateResponses(Challenge, PrecomputedAnnouncement)}, but returns the responses as a single
+     * {@link GeneralizedSchnorrResponseVector} in the canonical order of the variables.
+     *
+     * @param challenge   the challenge c
+     * @param precomputed an unused announcement that was precomputed for the problems of this protocol
+     * @return the responses s_i, ordered like the variables of the {@link GeneralizedSchnorrProofPlan}
+     * @throws IllegalStateException if {@code precomputed} has already been used
+     */
+    public GeneralizedSchnorrResponseVector generateResponseVector(Challenge challenge,
+                                                                   PrecomputedAnnouncement precomputed) {
+        return new GeneralizedSchnorrResponseVector(computeResponseValues(challenge, consumeRandomness(precomputed)));
+    }
+
+    /**
+     * @return the randomness of the announcements generated by {@link #generateAnnouncements()}, which must not be
+     * used again
+     */
+    private Zp.ZpElement[] consumeRandomValues() {
         if (randomValues == null) {
             throw new IllegalArgumentException("Randomness must be provided.");
         }
+        Zp.ZpElement[] randomness = randomValues;
+        randomValues = null; //avoid ever answering two challenges with the same randomness
+        return randomness;
+    }
+
+    /**
+     * @return the randomness of the given precomputed announcement, which is marked as used
+     * @throws IllegalStateException if {@code precomputed} has already been used
+     */
+    private Zp.ZpElement[] consumeRandomness(PrecomputedAnnouncement precomputed) {
+        if (!(precomputed instanceof GeneralizedSchnorrPrecomputedAnnouncement)
+                || ((GeneralizedSchnorrPrecomputedAnnouncement) precomputed).getPlan() != getProofPlan()) {
+            throw new IllegalArgumentException("The precomputed announcement does not belong to the problems of " +
+                    "this protocol");
+        }
+        return ((GeneralizedSchnorrPrecomputedAnnouncement) precomputed).consume();
+    }
+
+    /**
+     * Computes s_i = x_i * c + t_i.
+     *
+     * @param challenge  the challenge c
+     * @param randomness the randomness t_i, ordered like the variables of the {@link GeneralizedSchnorrProofPlan}
+     * @return the responses s_i, ordered like the variables of the {@link GeneralizedSchnorrProofPlan}
+     */
+    private Zp.ZpElement[] computeResponseValues(Challenge challenge, Zp.ZpElement[] randomness) {
         if (challenge == null || !(challenge instanceof GeneralizedSchnorrChallenge)) {
             throw new IllegalArgumentException("The given challenge is invalid.");
         }
@@ -228,15 +356,25 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
             throw new IllegalArgumentException("The given witness is incomplete.");
 
         GeneralizedSchnorrChallenge genSchnorrChallenge = (GeneralizedSchnorrChallenge) challenge;
-        HashSet<String> variables = getVariables();
-        GeneralizedSchnorrResponse[] response = new GeneralizedSchnorrResponse[variables.size()];
-        int i = 0;
-        for (String var : variables) {
-            response[i++] = new GeneralizedSchnorrResponse(var,
-                    genSchnorrChallenge.getChallenge().mul(witnessMapping.getWitnessValue(var)).add(randomValues.get(var)));
+        GeneralizedSchnorrProofPlan plan = getProofPlan();
+        Zp.ZpElement[] s_i = new Zp.ZpElement[plan.getNumberOfVariables()];
+        for (int i = 0; i < s_i.length; i++) {
+            s_i[i] = genSchnorrChallenge.getChallenge().mul(witnessMapping.getWitnessValue(plan.getVariableName(i)))
+                    .add(randomness[i]);
         }
+        return s_i;
+    }
 
-        randomValues = null; //avoid ever answering two challenges with the same randomness
+    /**
+     * @param s_i the responses, ordered like the variables of the {@link GeneralizedSchnorrProofPlan}
+     * @return one {@link GeneralizedSchnorrResponse} per variable
+     */
+    private GeneralizedSchnorrResponse[] toNamedResponses(Zp.ZpElement[] s_i) {
+        GeneralizedSchnorrProofPlan plan = getProofPlan();
+        GeneralizedSchnorrResponse[] response = new GeneralizedSchnorrResponse[s_i.length];
+        for (int i = 0; i < response.length; i++) {
+            response[i] = new GeneralizedSchnorrResponse(plan.getVariableName(i), s_i[i]);
+        }
         return response;
     }
 
@@ -262,7 +400,7 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
             throw new IllegalArgumentException("the given challenge is not valid to call this verify method");
         }
 
-        if (responses == null || Arrays.stream(responses).anyMatch(r -> !(r instanceof GeneralizedSchnorrResponse))) {
+        if (!isValidResponses(responses)) {
             throw new IllegalArgumentException("the given responses are not valid to call this verify method");
         }
 
@@ -271,25 +409,17 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
         }
 
         //Organize responses
-        HashMap<String, Zp.ZpElement> responseMapTmp = new HashMap<>();
-        for (Response response : responses) {
-            responseMapTmp.put(((GeneralizedSchnorrResponse) response).getVariableName(),
-                    ((GeneralizedSchnorrResponse) response).getResponse());
-        }
-        HashSet<String> variables = getVariables();
-        HashMap<String, Zp.ZpElement> responseMap = new HashMap<>();
-        variables.forEach(var -> responseMap.put(var, responseMapTmp.get(var)));
-        ZnElementPolicyFacts s_iFacts = mapToFacts(responseMap);
+        Zn.ZnElement[] s_i = organizeResponses(responses);
 
         //Prepare challenge
         Zp.ZpElement gsChallenge = ((GeneralizedSchnorrChallenge) challenge).getChallenge();
 
         //Calculate the first part of the verification equations
-        FutureGroupElement[] futureValues = recomputeTjForVerification(gsChallenge, s_iFacts);
+        GroupElement[] values = recomputeTjForVerification(gsChallenge, s_i, executor);
 
-        //Do equation check futureValues[j] = T_j
+        //Do equation check values[j] = T_j
         for (int j = 0; j < problems.length; j++) {
-            if (!futureValues[j].get().equals(((GeneralizedSchnorrAnnouncement) announcements[j]).getAnnouncement()))
+            if (!values[j].equals(((GeneralizedSchnorrAnnouncement) announcements[j]).getAnnouncement()))
                 return false;
         }
 
@@ -298,21 +428,287 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
     }
 
     /**
-     * Computes \prod g_(j,i)^s_i * A_j^(-c)
+     * Recomputes the announcements T_j = \prod_{i} (g_j,i ^s_i) * A_j ^(-c) from the given challenge and responses.
+     * These are the only announcements that are accepted by {@link #verify(Announcement[], Challenge, Response[])}
+     * for the given challenge and responses.
+     *
+     * @param challenge the challenge c
+     * @param responses the responses s_i
+     * @return an array of m announcements, where m is the number of Problems
+     */
+    @Override
+    public GeneralizedSchnorrAnnouncement[] recomputeAnnouncements(Challenge challenge, Response[] responses) {
+        if (challenge == null || !(challenge instanceof GeneralizedSchnorrChallenge)) {
+            throw new IllegalArgumentException("The given challenge is invalid.");
+        }
+        if (!isValidResponses(responses)) {
+            throw new IllegalArgumentException("The given responses are invalid.");
+        }
+
+        GroupElement[] values = recomputeTjForVerification(
+                ((GeneralizedSchnorrChallenge) challenge).getChallenge(), organizeResponses(responses), executor);
+
+        GeneralizedSchnorrAnnouncement[] announcements = new GeneralizedSchnorrAnnouncement[problems.length];
+        for (int j = 0; j < problems.length; j++) {
+            announcements[j] = new GeneralizedSchnorrAnnouncement(values[j]);
+        }
+        return announcements;
+    }
+
+    /**
+     * @param responses the responses to check
+     * @return true iff the responses are either {@link GeneralizedSchnorrResponse}s or a single
+     * {@link GeneralizedSchnorrResponseVector}
+     */
+    private static boolean isValidResponses(Response[] responses) {
+        if (responses == null) {
+            return false;
+        }
+        if (responses.length == 1 && responses[0] instanceof GeneralizedSchnorrResponseVector) {
+            return true;
+        }
+        return Arrays.stream(responses).allMatch(r -> r instanceof GeneralizedSchnorrResponse);
+    }
+
+    /**
+     * Orders the values of the given responses like the variables of the {@link GeneralizedSchnorrProofPlan}.
+     *
+     * @param responses the {@link GeneralizedSchnorrResponse}s or a single {@link GeneralizedSchnorrResponseVector}
+     * @return the responses s_i for the variables of the problem equations
+     * @throws IllegalArgumentException if there is no response for some variable
+     */
+    private Zn.ZnElement[] organizeResponses(Response[] responses) {
+        Zn.ZnElement[] responseVector = toResponseVector(responses);
+        if (responseVector == null) {
+            throw new IllegalArgumentException("There must be exactly one response for every variable");
+        }
+        return responseVector;
+    }
+
+    /**
+     * Orders the values of the given responses like the variables of the {@link GeneralizedSchnorrProofPlan}.
+     * A {@link GeneralizedSchnorrResponseVector} is already in this order and used as is.
      *
-     * @param challenge
-     * @param s_iFacts
-     * @return
+     * @param responses valid responses (see {@link #isValidResponses(Response[])})
+     * @return the responses s_i for the variables of the problem equations, or null if some response is missing
      */
-    protected FutureGroupElement[] recomputeTjForVerification(Zp.ZpElement challenge, ZnElementPolicyFacts s_iFacts) {
-        FutureGroupElement[] futureValues = new FutureGroupElement[problems.length];
+    private Zn.ZnElement[] toResponseVector(Response[] responses) {
+        GeneralizedSchnorrProofPlan plan = getProofPlan();
+        if (responses.length == 1 && responses[0] instanceof GeneralizedSchnorrResponseVector) {
+            GeneralizedSchnorrResponseVector vector = (GeneralizedSchnorrResponseVector) responses[0];
+            return vector.size() == plan.getNumberOfVariables() ? vector.getResponses() : null;
+        }
+
+        HashMap<String, Zp.ZpElement> responseMap = new HashMap<>();
+        for (Response response : responses) {
+            responseMap.put(((GeneralizedSchnorrResponse) response).getVariableName(),
+                    ((GeneralizedSchnorrResponse) response).getResponse());
+        }
+        Zn.ZnElement[] responseVector = new Zn.ZnElement[plan.getNumberOfVariables()];
+        for (int i = 0; i < responseVector.length; i++) {
+            responseVector[i] = responseMap.get(plan.getVariableName(i));
+            if (responseVector[i] == null) {
+                return null;
+            }
+        }
+        return responseVector;
+    }
+
+    /**
+     * Verifies a batch of transcripts at once.
+     * <p>
+     * Every verification equation \prod_{i} (g_j,i ^s_i) = A_j ^c * T_j of every transcript t is raised to a small
+     * random exponent d_{t,j} and all of them are multiplied together. As the bases g_j,i and A_j are the same for all
+     * transcripts, this yields a single multi-exponentiation per group:
+     * \prod_{j} \prod_{i} g_j,i ^(\sum_t d_{t,j} s_{t,i}) * A_j ^(-\sum_t d_{t,j} c_t) * \prod_t T_{t,j} ^(-d_{t,j}) = 1
+     * <p>
+     * If the batch is rejected, {@link #findInvalidTranscripts(List)} can be used to determine the invalid transcripts.
+     *
+     * @param transcripts the transcripts (announcements, challenge, responses) to check
+     * @return true iff (with overwhelming probability) {@link #verify(Announcement[], Challenge, Response[])} accepts
+     * every transcript, false otherwise
+     */
+    @Override
+    public boolean verifyBatch(List<? extends Transcript> transcripts) {
+        if (transcripts == null) {
+            throw new IllegalArgumentException("The given list of transcripts must not be null");
+        }
+        if (transcripts.isEmpty()) {
+            return true;
+        }
+        if (transcripts.size() == 1) {
+            Transcript transcript = transcripts.get(0);
+            return verify(transcript.getAnnouncements(), transcript.getChallenge(), transcript.getResponses());
+        }
+
+        //Check types and sizes, organize responses
+        GeneralizedSchnorrProofPlan plan = getProofPlan();
+        List<Zn.ZnElement[]> responseVectors = new ArrayList<>(transcripts.size());
+        for (Transcript transcript : transcripts) {
+            Announcement[] announcements = transcript.getAnnouncements();
+            if (announcements == null || Arrays.stream(announcements)
+                    .anyMatch(a -> !(a instanceof GeneralizedSchnorrAnnouncement))) {
+                throw new IllegalArgumentException("the given announcements are not valid to call this verify method");
+            }
+            if (!(transcript.getChallenge() instanceof GeneralizedSchnorrChallenge)) {
+                throw new IllegalArgumentException("the given challenge is not valid to call this verify method");
+            }
+            Response[] responses = transcript.getResponses();
+            if (!isValidResponses(responses)) {
+                throw new IllegalArgumentException("the given responses are not valid to call this verify method");
+            }
+            if (problems.length != announcements.length) {
+                throw new IllegalArgumentException("The number of given announcements is incorrect!");
+            }
+
+            Zn.ZnElement[] responseVector = toResponseVector(responses);
+            if (responseVector == null) {
+                return false;
+            }
+            responseVectors.add(responseVector);
+        }
+
+        SecureRandom random = new SecureRandom();
+        Zp.ZpElement[] combinedChallenges = new Zp.ZpElement[problems.length];
+        Zp.ZpElement[][] combinedResponseVectors = new Zp.ZpElement[problems.length][];
+        GroupElementMixedExpression[] combinedAnnouncementExpressions =
+                new GroupElementMixedExpression[problems.length];
+        Map<Group, List<Integer>> equationsByGroup = new HashMap<>();
         for (int j = 0; j < problems.length; j++) {
-            GeneralizedSchnorrProblem prob = (GeneralizedSchnorrProblem) problems[j];
-            futureValues[j] = prob.getRHS().resultAsEfficientExpression(new SuperGroupElementPolicyFacts(), s_iFacts)
-                    .op(prob.getValueOfA().pow(challenge).inv()).evaluateConcurrent();
+            Group group = plan.getGroup(j);
+
+            //Combine the j-th equation of all transcripts using random exponents d_{t,j}
+            Zp.ZpElement combinedChallenge = zp.getZeroElement();
+            Zp.ZpElement[] combinedResponses = new Zp.ZpElement[plan.getNumberOfVariables()];
+            Arrays.fill(combinedResponses, zp.getZeroElement());
+            GroupElementMixedExpression combinedAnnouncements = null;
+            for (int t = 0; t < transcripts.size(); t++) {
+                Transcript transcript = transcripts.get(t);
+                GroupElement announcement =
+                        ((GeneralizedSchnorrAnnouncement) transcript.getAnnouncements()[j]).getAnnouncement();
+                if (announcement == null || !announcement.getStructure().equals(group)) {
+                    return false;
+                }
+                Zp.ZpElement delta = zp.createZnElement(new BigInteger(BATCH_EXPONENT_BIT_LENGTH - 1, random)
+                        .setBit(BATCH_EXPONENT_BIT_LENGTH - 1));
+
+                combinedChallenge = combinedChallenge.add(
+                        delta.mul(((GeneralizedSchnorrChallenge) transcript.getChallenge()).getChallenge()));
+                Zn.ZnElement[] responseVector = responseVectors.get(t);
+                for (int i = 0; i < combinedResponses.length; i++) {
+                    combinedResponses[i] = combinedResponses[i].add(delta.mul(responseVector[i]));
+                }
+                GroupElementMixedExpression weightedAnnouncement =
+                        new GroupElementMixedExpression(announcement.asPowProductExpression()).pow(delta);
+                combinedAnnouncements = combinedAnnouncements == null ? weightedAnnouncement
+                        : combinedAnnouncements.op(weightedAnnouncement);
+            }
+
+            combinedChallenges[j] = combinedChallenge;
+            combinedResponseVectors[j] = combinedResponses;
+            combinedAnnouncementExpressions[j] = combinedAnnouncements;
+            equationsByGroup.computeIfAbsent(group, g -> new ArrayList<>()).add(j);
         }
 
-        return futureValues;
+        //Evaluate a single multi-exponentiation per group, the product over the equations j of that group of
+        //\prod_{i} g_j,i ^(\sum_t d_{t,j} s_{t,i}) * A_j ^(-\sum_t d_{t,j} c_t) * (\prod_t T_{t,j} ^d_{t,j})^(-1)
+        List<List<Integer>> groupedEquations = new ArrayList<>(equationsByGroup.values());
+        return Arrays.stream(evaluate(groupedEquations.size(), g -> {
+            GroupElementMixedExpression equation = null;
+            for (int j : groupedEquations.get(g)) {
+                GroupElementMixedExpression equationJ =
+                        plan.multiExponentiation(j, combinedResponseVectors[j], combinedChallenges[j])
+                                .op(combinedAnnouncementExpressions[j].inv());
+                equation = equation == null ? equationJ : equation.op(equationJ);
+            }
+            return equation;
+        }, executor)).allMatch(GroupElement::isNeutralElement);
+    }
+
+    /**
+     * Computes \prod g_(j,i)^s_i * A_j^(-c)
+     *
+     * @param challenge the challenge c
+     * @param s_iFacts  the responses s_i
+     * @return the values for all j
+     */
+    protected GroupElement[] recomputeTjForVerification(Zp.ZpElement challenge, ZnElementPolicyFacts s_iFacts) {
+        return recomputeTjForVerification(challenge, getProofPlan().toVector(s_iFacts.getFacts()), executor);
+    }
+
+    /**
+     * Computes \prod g_(j,i)^s_i * A_j^(-c)
+     *
+     * @param challenge the challenge c
+     * @param s_i       the responses, ordered like the variables of the {@link GeneralizedSchnorrProofPlan}
+     * @param executor  the executor to evaluate the equations on, null to use the common {@link ForkJoinPool}
+     * @return the values for all j
+     */
+    GroupElement[] recomputeTjForVerification(Zp.ZpElement challenge, Zn.ZnElement[] s_i, Executor executor) {
+        GeneralizedSchnorrProofPlan plan = getProofPlan();
+        return evaluate(plan.getNumberOfEquations(), j -> plan.multiExponentiation(j, s_i, challenge), executor);
+    }
+
+    /**
+     * Computes and evaluates the given number of expressions concurrently.
+     * <p>
+     * Computing and evaluating each expression is one task on the executor, so the work done while computing an
+     * expression (e.g. table lookups of the {@link GeneralizedSchnorrProofPlan}) is spread across the tasks as well.
+     * A single expression is computed and evaluated by the calling thread.
+     *
+     * @param count       the number of expressions
+     * @param expressions computes the j-th expression
+     * @param executor    the executor to use, null to use the common {@link ForkJoinPool}
+     * @return the values of the expressions
+     */
+    static GroupElement[] evaluate(int count, IntFunction<GroupElementMixedExpression> expressions,
+                                   Executor executor) {
+        GroupElement[] results = new GroupElement[count];
+        if (count == 1) {
+            results[0] = expressions.apply(0).evaluate();
+            return results;
+        }
+        if (executor == null) {
+            executor = ForkJoinPool.commonPool();
+        }
+
+        List<CompletableFuture<GroupElement>> futures = new ArrayList<>(count);
+        for (int j = 0; j < count; j++) {
+            final int index = j;
+            futures.add(CompletableFuture.supplyAsync(() -> expressions.apply(index).evaluate(), executor));
+        }
+        try {
+            for (int j = 0; j < count; j++) {
+                results[j] = futures.get(j).join();
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Returns the compiled form of {@link #problems}. It is computed on first use and reused until the problems are
+     * replaced via {@link #setProblems(Problem[])}.
+     *
+     * @return the {@link GeneralizedSchnorrProofPlan} for the problems of this protocol
+     */
+    GeneralizedSchnorrProofPlan getProofPlan() {
+        GeneralizedSchnorrProofPlan plan = proofPlan;
+        if (plan == null) {
+            if (Arrays.stream(problems).anyMatch(p -> !(p instanceof GeneralizedSchnorrProblem))) {
+                throw new IllegalArgumentException("The given Problem is not an instance of a generalized Schnorr " +
+                        "problem");
+            }
+            plan = GeneralizedSchnorrProofPlan.compile(Arrays.stream(problems)
+                    .map(p -> (GeneralizedSchnorrProblem) p)
+                    .toArray(GeneralizedSchnorrProblem[]::new), precomputationCache);
+            proofPlan = plan;
+        }
+        return plan;
     }
 
     /**
@@ -338,13 +734,17 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
     }
 
     /**
-     * This method restores the serialized array of responses
+     * This method restores a serialized response, i.e. a {@link GeneralizedSchnorrResponse} or a
+     * {@link GeneralizedSchnorrResponseVector}.
      *
-     * @param representation of the announcement array
-     * @return the restored responses array
+     * @param representation of the response
+     * @return the restored response
      */
     @Override
-    public GeneralizedSchnorrResponse recreateResponse(Representation representation) {
+    public Response recreateResponse(Representation representation) {
+        if (representation instanceof ListRepresentation) {
+            return recreateResponseVector(representation, this.zp);
+        }
         return recreateResponse(representation, this.zp);
     }
 
@@ -367,18 +767,13 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
     /**
      * Computes the set of variables in the problem expressions.
      * This corresponds to witnesses of the Schnorr protocol
+     * <p>
+     * The variables are determined once per set of problems (see {@link #getProofPlan()}); this returns a copy.
      *
-     * @return
+     * @return the names of the variables
      */
     public HashSet<String> getVariables() {
-        HashSet<Variable> variables = new HashSet<>();
-        for (Problem problem : problems)
-            ((GeneralizedSchnorrProblem) problem).getVariables(variables);
-
-        HashSet<String> result = new HashSet<>();
-        for (Variable var : variables)
-            result.add(var.getName());
-        return result;
+        return new HashSet<>(getProofPlan().getVariableSet());
     }
 
     /**
@@ -386,9 +781,65 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
      * variable in the equation that does not get a value.
      */
     private boolean witnessIsMissingVariables() {
-        HashSet<String> missingWitnesses = getVariables();
-        missingWitnesses.removeAll(witnessMapping.getMap().keySet());
-        return !missingWitnesses.isEmpty();
+        return !getProofPlan().hasValuesForAllVariables(witnessMapping.getMap());
+    }
+
+    /**
+     * Sets the cache for precomputed tables of the (fixed) bases g_j,i, which are used for the secret exponents of the
+     * prover. The cache only builds the table of a base after it has been used a few times (see
+     * {@link FixedBasePrecomputationCache#precompute(GroupElement)} to build it right away). By default,
+     * {@link FixedBasePrecomputationCache#getDefault()} is used.
+     *
+     * @param precomputationCache the cache to use, or null to disable fixed-base precomputation
+     */
+    public void setPrecomputationCache(FixedBasePrecomputationCache precomputationCache) {
+        this.precomputationCache = precomputationCache;
+        this.proofPlan = null;
+    }
+
+    public FixedBasePrecomputationCache getPrecomputationCache() {
+        return precomputationCache;
+    }
+
+    /**
+     * Sets the pool that {@link #generateAnnouncements()} takes its announcements from.
+     *
+     * @param announcementPool a pool created for this protocol, or null to compute announcements on demand
+     */
+    public void setAnnouncementPool(GeneralizedSchnorrAnnouncementPool announcementPool) {
+        this.announcementPool = announcementPool;
+    }
+
+    public GeneralizedSchnorrAnnouncementPool getAnnouncementPool() {
+        return announcementPool;
+    }
+
+    /**
+     * Sets the executor that the equations of this protocol are evaluated on. Every equation is computed as a separate
+     * task. By default (null), the common {@link ForkJoinPool} is used.
+     * <p>
+     * If this protocol is run by a
+     * {@link de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic} that spreads several proofs across
+     * an executor, the two executors must not be the same bounded pool, since the tasks of the heuristic wait for the
+     * tasks of this protocol.
+     *
+     * @param executor the executor to use, or null for the default behavior
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+
+    /**
+     * @param j index of a problem equation
+     * @return the group G_j of the j-th problem equation, which contains A_j, all g_j,i and the announcement T_j
+     */
+    public Group getGroup(int j) {
+        return getProofPlan().getGroup(j);
     }
 
     public GeneralizedSchnorrPublicParameter getPp() {
@@ -404,6 +855,7 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
     public void setProblems(Problem[] problems) {
         super.setProblems(problems);
         this.isFulfilled = null;
+        this.proofPlan = null;
     }
 
     @Override
@@ -425,4 +877,15 @@ public class GeneralizedSchnorrProtocol extends SigmaProtocol implements Standal
         return new GeneralizedSchnorrResponse(repr.obj().get("variableName").str().get(),
                 zp.getElement(repr.obj().get("value")));
     }
+
+    /**
+     * Restores a {@link GeneralizedSchnorrResponseVector}.
+     *
+     * @param repr the representation of the response vector
+     * @param zp   the ring of the response values
+     * @return the restored response vector
+     */
+    public static GeneralizedSchnorrResponseVector recreateResponseVector(Representation repr, Zp zp) {
+        return new GeneralizedSchnorrResponseVector(repr, zp);
+    }
 }
@@ -0,0 +1,84 @@
+package de.upb.crypto.clarc.protocols.generalizedschnorrprotocol;
+
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.math.serialization.ListRepresentation;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.structures.zn.Zp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * All responses s_i of a generalized schnorr protocol in a single response.
+ * <p>
+ * In contrast to {@link GeneralizedSchnorrResponse}, the responses do not contain the names of their variables.
+ * Instead, s_i is the response for the i-th variable in the canonical order of the problems, which is the
+ * lexicographic order of the variable names. Hence the representation of the responses only depends on their values.
+ */
+public class GeneralizedSchnorrResponseVector implements Response {
+
+    private final Zp.ZpElement[] responses;
+
+    /**
+     * @param responses the responses s_i, ordered like the variables of the problems
+     */
+    public GeneralizedSchnorrResponseVector(Zp.ZpElement[] responses) {
+        this.responses = responses.clone();
+    }
+
+    public GeneralizedSchnorrResponseVector(Representation representation, Zp zp) {
+        List<Representation> list = representation.list().getList();
+        this.responses = new Zp.ZpElement[list.size()];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = zp.getElement(list.get(i));
+        }
+    }
+
+    /**
+     * @return the number of responses
+     */
+    public int size() {
+        return responses.length;
+    }
+
+    /**
+     * @param i index of a variable
+     * @return the response s_i for the i-th variable
+     */
+    public Zp.ZpElement getResponse(int i) {
+        return responses[i];
+    }
+
+    public Zp.ZpElement[] getResponses() {
+        return responses.clone();
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        List<Representation> list = new ArrayList<>(responses.length);
+        for (Zp.ZpElement response : responses) {
+            list.add(response.getRepresentation());
+        }
+        return new ListRepresentation(list);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        GeneralizedSchnorrResponseVector that = (GeneralizedSchnorrResponseVector) o;
+        return Arrays.equals(responses, that.responses);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(responses);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(responses);
+    }
+}
@@ -4,12 +4,11 @@ import de.upb.crypto.clarc.protocols.parameters.Challenge;
 import de.upb.crypto.clarc.protocols.simulator.SigmaProtocolTranscript;
 import de.upb.crypto.clarc.protocols.simulator.SpecialHonestVerifierSimulator;
 import de.upb.crypto.clarc.protocols.simulator.Transcript;
-import de.upb.crypto.math.interfaces.structures.FutureGroupElement;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
 import de.upb.crypto.math.structures.zn.Zp;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.concurrent.Executor;
 
 /**
  * Special honest verifier simulator for a generalized Schnorr protocol.
@@ -19,10 +18,29 @@ import java.util.HashSet;
  * Finally the transcript is returned.
  */
 public class GeneralizedSchnorrSimulator extends SpecialHonestVerifierSimulator {
+    /**
+     * Executor the announcements are computed on, null to use the executor of the protocol
+     */
+    private Executor executor = null;
+
     public GeneralizedSchnorrSimulator(GeneralizedSchnorrProtocol protocolInstance) {
         super(protocolInstance);
     }
 
+    /**
+     * Sets the executor that the announcements T_j are computed on. Every equation is computed as a separate task.
+     *
+     * @param executor the executor to use, or null to use the executor of the protocol (see
+     *                 {@link GeneralizedSchnorrProtocol#setExecutor(Executor)})
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
     /**
      * Given a challenge, the responses are chosen uniformly at random from Z_p, p = |G_1| = ... = |G_m|
      * Thereby, the randomness used in the announcement is fixed, since witness x_i and challenge c are fixed.
@@ -50,25 +68,23 @@ public class GeneralizedSchnorrSimulator extends SpecialHonestVerifierSimulator
 
 
         //Generate a response for each variable
-        HashSet<String> variables = protocol.getVariables();
+        GeneralizedSchnorrProofPlan plan = protocol.getProofPlan();
         Zp zp = new Zp(publicParameter.getP());
-        GeneralizedSchnorrResponse[] responses = new GeneralizedSchnorrResponse[variables.size()];
-        HashMap<String, Zp.ZpElement> s_iMap = new HashMap<>();
-        int i = 0;
-        for (String var : variables) {
-            Zp.ZpElement rnd = zp.getUniformlyRandomElement();
-            responses[i++] = new GeneralizedSchnorrResponse(var, rnd);
-            s_iMap.put(var, rnd);
+        GeneralizedSchnorrResponse[] responses = new GeneralizedSchnorrResponse[plan.getNumberOfVariables()];
+        Zp.ZpElement[] s_i = new Zp.ZpElement[plan.getNumberOfVariables()];
+        for (int i = 0; i < s_i.length; i++) {
+            s_i[i] = zp.getUniformlyRandomElement();
+            responses[i] = new GeneralizedSchnorrResponse(plan.getVariableName(i), s_i[i]);
         }
 
         //Generate corresponding announcements T_j
-        FutureGroupElement[] futureAnnouncements = protocol.recomputeTjForVerification(generalizedSchnorrChallenge.getChallenge(),
-                GeneralizedSchnorrProtocol.mapToFacts(s_iMap));
+        GroupElement[] announcementValues = protocol.recomputeTjForVerification(
+                generalizedSchnorrChallenge.getChallenge(), s_i, executor != null ? executor : protocol.getExecutor());
 
         //Collect results
         GeneralizedSchnorrAnnouncement[] announcements = new GeneralizedSchnorrAnnouncement[problem.length];
         for (int j = 0; j < problem.length; j++)
-            announcements[j] = new GeneralizedSchnorrAnnouncement(futureAnnouncements[j].get());
+            announcements[j] = new GeneralizedSchnorrAnnouncement(announcementValues[j]);
 
         return new SigmaProtocolTranscript(announcements, generalizedSchnorrChallenge, responses, protocol);
     }
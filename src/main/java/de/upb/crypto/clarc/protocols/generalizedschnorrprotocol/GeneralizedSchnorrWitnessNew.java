@@ -75,4 +75,9 @@ public class GeneralizedSchnorrWitnessNew extends ZnElementPolicyFacts implement
     public Map<String, Zn.ZnElement> getFacts() {
         return Collections.unmodifiableMap(witnesses);
     }
+
+    @Override
+    public Zn.ZnElement getFact(String name) {
+        return witnesses.get(name);
+    }
 }
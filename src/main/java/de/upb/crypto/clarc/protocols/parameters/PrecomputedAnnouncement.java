@@ -0,0 +1,20 @@
+package de.upb.crypto.clarc.protocols.parameters;
+
+/**
+ * Announcements of a three way protocol that were computed ahead of time, together with the prover's secret state that
+ * is needed to answer a challenge for them. A precomputed announcement must only be used once.
+ *
+ * @see de.upb.crypto.clarc.protocols.arguments.PrecomputableThreeWayAoK
+ */
+public interface PrecomputedAnnouncement {
+
+    /**
+     * @return the announcements
+     */
+    Announcement[] getAnnouncements();
+
+    /**
+     * @return true iff this precomputed announcement has already been used to answer a challenge
+     */
+    boolean isUsed();
+}
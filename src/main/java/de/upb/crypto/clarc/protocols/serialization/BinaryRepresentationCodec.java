@@ -0,0 +1,431 @@
+package de.upb.crypto.clarc.protocols.serialization;
+
+import de.upb.crypto.math.serialization.BigIntegerRepresentation;
+import de.upb.crypto.math.serialization.BooleanRepresentation;
+import de.upb.crypto.math.serialization.ByteArrayRepresentation;
+import de.upb.crypto.math.serialization.ListRepresentation;
+import de.upb.crypto.math.serialization.MapRepresentation;
+import de.upb.crypto.math.serialization.ObjectRepresentation;
+import de.upb.crypto.math.serialization.RepresentableRepresentation;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.serialization.StringRepresentation;
+import de.upb.crypto.math.structures.zn.Zn;
+
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link Representation}s and of Zn elements.
+ * <p>
+ * Every representation is written as a one byte tag followed by its content. Strings, byte arrays and integers are
+ * prefixed with their length, lists, maps and objects with their number of entries. Decoding yields a representation
+ * that is equal to the encoded one, so every {@link de.upb.crypto.math.serialization.Representable} can be restored
+ * from the decoded representation as usual.
+ * <p>
+ * Zn elements are written as fixed-width unsigned integers of {@link #getScalarLength(Zn)} bytes without any prefix.
+ * <p>
+ * All lengths and counts are 4 byte big endian integers. Malformed input, including representations nested deeper
+ * than {@link #MAX_DEPTH} levels, results in an {@link IllegalArgumentException}.
+ */
+public final class BinaryRepresentationCodec {
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_BIG_INTEGER = 1;
+    private static final byte TAG_STRING = 2;
+    private static final byte TAG_BYTE_ARRAY = 3;
+    private static final byte TAG_BOOLEAN = 4;
+    private static final byte TAG_LIST = 5;
+    private static final byte TAG_MAP = 6;
+    private static final byte TAG_OBJECT = 7;
+    private static final byte TAG_REPRESENTABLE = 8;
+
+    /**
+     * Maximal nesting depth of lists, maps, objects and representables accepted by {@link #read(ByteBuffer)} and
+     * {@link #skip(ByteBuffer)}, which bounds the recursion depth when decoding untrusted input
+     */
+    public static final int MAX_DEPTH = 64;
+
+    private BinaryRepresentationCodec() {
+    }
+
+    /**
+     * @param representation the representation to encode, may be null
+     * @return the encoding of the representation
+     */
+    public static byte[] encode(Representation representation) {
+        ByteBuffer buffer = ByteBuffer.allocate(getEncodedLength(representation));
+        write(buffer, representation);
+        return buffer.array();
+    }
+
+    /**
+     * @param bytes the encoding of a representation
+     * @return the decoded representation
+     * @throws IllegalArgumentException if the bytes are not exactly the encoding of a representation
+     */
+    public static Representation decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Representation representation = read(buffer);
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected bytes after the encoded representation");
+        }
+        return representation;
+    }
+
+    /**
+     * @param representation a representation, may be null
+     * @return the number of bytes written by {@link #write(ByteBuffer, Representation)}
+     * @throws IllegalArgumentException if the encoding does not fit into a byte array
+     */
+    public static int getEncodedLength(Representation representation) {
+        return toLength(computeEncodedLength(representation));
+    }
+
+    private static long computeEncodedLength(Representation representation) {
+        if (representation == null) {
+            return 1;
+        }
+        if (representation instanceof BigIntegerRepresentation) {
+            return 1 + 4 + representation.bigInt().get().toByteArray().length;
+        }
+        if (representation instanceof StringRepresentation) {
+            return 1 + 4 + representation.str().get().getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (representation instanceof ByteArrayRepresentation) {
+            return 1 + 4 + (long) representation.bytes().get().length;
+        }
+        if (representation instanceof BooleanRepresentation) {
+            return 1 + 1;
+        }
+        long length = 1 + 4;
+        if (representation instanceof ListRepresentation) {
+            for (Representation element : representation.list().getList()) {
+                length += computeEncodedLength(element);
+            }
+        } else if (representation instanceof MapRepresentation) {
+            for (Map.Entry<Representation, Representation> entry : representation.map().getMap().entrySet()) {
+                length += computeEncodedLength(entry.getKey()) + computeEncodedLength(entry.getValue());
+            }
+        } else if (representation instanceof ObjectRepresentation) {
+            ObjectRepresentation obj = representation.obj();
+            for (String key : obj.getKeys()) {
+                length += 4 + key.getBytes(StandardCharsets.UTF_8).length + computeEncodedLength(obj.get(key));
+            }
+        } else if (representation instanceof RepresentableRepresentation) {
+            length = 1 + 4 + representation.repr().getRepresentedTypeName().getBytes(StandardCharsets.UTF_8).length
+                    + computeEncodedLength(representation.repr().getRepresentation());
+        } else {
+            throw new IllegalArgumentException("Unsupported representation " + representation.getClass().getName());
+        }
+        return length;
+    }
+
+    /**
+     * @param length the length of an encoding
+     * @return the length as int
+     * @throws IllegalArgumentException if the encoding does not fit into a byte array
+     */
+    static int toLength(long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The encoding is too large");
+        }
+        return (int) length;
+    }
+
+    /**
+     * Writes the given representation at the current position of the buffer.
+     *
+     * @param buffer         the buffer to write to
+     * @param representation the representation to write, may be null
+     * @throws java.nio.BufferOverflowException if the buffer has less than
+     *                                          {@link #getEncodedLength(Representation)} bytes remaining
+     */
+    public static void write(ByteBuffer buffer, Representation representation) {
+        if (representation == null) {
+            buffer.put(TAG_NULL);
+        } else if (representation instanceof BigIntegerRepresentation) {
+            buffer.put(TAG_BIG_INTEGER);
+            writeBytes(buffer, representation.bigInt().get().toByteArray());
+        } else if (representation instanceof StringRepresentation) {
+            buffer.put(TAG_STRING);
+            writeString(buffer, representation.str().get());
+        } else if (representation instanceof ByteArrayRepresentation) {
+            buffer.put(TAG_BYTE_ARRAY);
+            writeBytes(buffer, representation.bytes().get());
+        } else if (representation instanceof BooleanRepresentation) {
+            buffer.put(TAG_BOOLEAN);
+            buffer.put(representation.bool().get() ? (byte) 1 : (byte) 0);
+        } else if (representation instanceof ListRepresentation) {
+            buffer.put(TAG_LIST);
+            List<Representation> list = representation.list().getList();
+            buffer.putInt(list.size());
+            for (Representation element : list) {
+                write(buffer, element);
+            }
+        } else if (representation instanceof MapRepresentation) {
+            buffer.put(TAG_MAP);
+            Map<Representation, Representation> map = representation.map().getMap();
+            buffer.putInt(map.size());
+            for (Map.Entry<Representation, Representation> entry : map.entrySet()) {
+                write(buffer, entry.getKey());
+                write(buffer, entry.getValue());
+            }
+        } else if (representation instanceof ObjectRepresentation) {
+            buffer.put(TAG_OBJECT);
+            ObjectRepresentation obj = representation.obj();
+            buffer.putInt(obj.getKeys().size());
+            for (String key : obj.getKeys()) {
+                writeString(buffer, key);
+                write(buffer, obj.get(key));
+            }
+        } else if (representation instanceof RepresentableRepresentation) {
+            buffer.put(TAG_REPRESENTABLE);
+            writeString(buffer, representation.repr().getRepresentedTypeName());
+            write(buffer, representation.repr().getRepresentation());
+        } else {
+            throw new IllegalArgumentException("Unsupported representation " + representation.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a representation from the current position of the buffer.
+     *
+     * @param buffer the buffer to read from
+     * @return the representation, possibly null
+     * @throws IllegalArgumentException if the buffer does not contain a valid encoding
+     */
+    public static Representation read(ByteBuffer buffer) {
+        return read(buffer, 0);
+    }
+
+    private static Representation read(ByteBuffer buffer, int depth) {
+        try {
+            byte tag = buffer.get();
+            if (tag >= TAG_LIST && tag <= TAG_REPRESENTABLE && depth >= MAX_DEPTH) {
+                throw new IllegalArgumentException("The encoded representation is nested too deeply");
+            }
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_BIG_INTEGER:
+                    return new BigIntegerRepresentation(new BigInteger(readBytes(buffer)));
+                case TAG_STRING:
+                    return new StringRepresentation(readString(buffer));
+                case TAG_BYTE_ARRAY:
+                    return new ByteArrayRepresentation(readBytes(buffer));
+                case TAG_BOOLEAN:
+                    return new BooleanRepresentation(buffer.get() != 0);
+                case TAG_LIST: {
+                    int size = readCount(buffer);
+                    List<Representation> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(read(buffer, depth + 1));
+                    }
+                    return new ListRepresentation(list);
+                }
+                case TAG_MAP: {
+                    int size = readCount(buffer);
+                    MapRepresentation map = new MapRepresentation();
+                    for (int i = 0; i < size; i++) {
+                        map.put(read(buffer, depth + 1), read(buffer, depth + 1));
+                    }
+                    return map;
+                }
+                case TAG_OBJECT: {
+                    int size = readCount(buffer);
+                    ObjectRepresentation obj = new ObjectRepresentation();
+                    for (int i = 0; i < size; i++) {
+                        obj.put(readString(buffer), read(buffer, depth + 1));
+                    }
+                    return obj;
+                }
+                case TAG_REPRESENTABLE:
+                    return new RepresentableRepresentation(readString(buffer), read(buffer, depth + 1));
+                default:
+                    throw new IllegalArgumentException("Unknown representation tag " + tag);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The encoded representation is truncated", e);
+        }
+    }
+
+    /**
+     * Skips the representation at the current position of the buffer without creating it. The structure of the
+     * encoding (tags, lengths and numbers of entries) is validated as in {@link #read(ByteBuffer)}.
+     *
+     * @param buffer the buffer to read from
+     * @throws IllegalArgumentException if the buffer does not contain a valid encoding
+     */
+    public static void skip(ByteBuffer buffer) {
+        skip(buffer, 0);
+    }
+
+    private static void skip(ByteBuffer buffer, int depth) {
+        try {
+            byte tag = buffer.get();
+            if (tag >= TAG_LIST && tag <= TAG_REPRESENTABLE && depth >= MAX_DEPTH) {
+                throw new IllegalArgumentException("The encoded representation is nested too deeply");
+            }
+            switch (tag) {
+                case TAG_NULL:
+                    return;
+                case TAG_BIG_INTEGER:
+                case TAG_STRING:
+                case TAG_BYTE_ARRAY:
+                    skipBytes(buffer);
+                    return;
+                case TAG_BOOLEAN:
+                    buffer.get();
+                    return;
+                case TAG_LIST: {
+                    int size = readCount(buffer);
+                    for (int i = 0; i < size; i++) {
+                        skip(buffer, depth + 1);
+                    }
+                    return;
+                }
+                case TAG_MAP: {
+                    int size = readCount(buffer);
+                    for (int i = 0; i < size; i++) {
+                        skip(buffer, depth + 1);
+                        skip(buffer, depth + 1);
+                    }
+                    return;
+                }
+                case TAG_OBJECT: {
+                    int size = readCount(buffer);
+                    for (int i = 0; i < size; i++) {
+                        skipBytes(buffer);
+                        skip(buffer, depth + 1);
+                    }
+                    return;
+                }
+                case TAG_REPRESENTABLE:
+                    skipBytes(buffer);
+                    skip(buffer, depth + 1);
+                    return;
+                default:
+                    throw new IllegalArgumentException("Unknown representation tag " + tag);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The encoded representation is truncated", e);
+        }
+    }
+
+    /**
+     * @param zn the ring
+     * @return the number of bytes of an encoded element of zn
+     */
+    public static int getScalarLength(Zn zn) {
+        return (zn.size().subtract(BigInteger.ONE).bitLength() + 7) / 8;
+    }
+
+    /**
+     * Writes the given element as unsigned big endian integer of {@link #getScalarLength(Zn)} bytes.
+     *
+     * @param buffer  the buffer to write to
+     * @param element the element to write
+     */
+    public static void writeScalar(ByteBuffer buffer, Zn.ZnElement element) {
+        int length = getScalarLength(element.getStructure());
+        byte[] bytes = element.getInteger().toByteArray();
+        //toByteArray() may contain a leading sign byte or be shorter than length
+        int offset = bytes.length > length ? bytes.length - length : 0;
+        for (int i = bytes.length - offset; i < length; i++) {
+            buffer.put((byte) 0);
+        }
+        buffer.put(bytes, offset, bytes.length - offset);
+    }
+
+    /**
+     * Reads an element written by {@link #writeScalar(ByteBuffer, Zn.ZnElement)}.
+     *
+     * @param buffer the buffer to read from
+     * @param zn     the ring of the element
+     * @return the element
+     * @throws IllegalArgumentException if the buffer is too short or the value is not an element of zn
+     */
+    public static Zn.ZnElement readScalar(ByteBuffer buffer, Zn zn) {
+        byte[] bytes = new byte[getScalarLength(zn)];
+        try {
+            buffer.get(bytes);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The encoded scalar is truncated", e);
+        }
+        BigInteger value = new BigInteger(1, bytes);
+        if (value.compareTo(zn.size()) >= 0) {
+            throw new IllegalArgumentException("The encoded scalar is not an element of Z_" + zn.size());
+        }
+        return zn.createZnElement(value);
+    }
+
+    /**
+     * Writes the length of the bytes followed by the bytes.
+     */
+    public static void writeBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Reads bytes written by {@link #writeBytes(ByteBuffer, byte[])}.
+     *
+     * @throws IllegalArgumentException if the length is invalid or exceeds the remaining bytes
+     */
+    public static byte[] readBytes(ByteBuffer buffer) {
+        int length = readCount(buffer);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Skips bytes written by {@link #writeBytes(ByteBuffer, byte[])}.
+     *
+     * @throws IllegalArgumentException if the length is invalid or exceeds the remaining bytes
+     */
+    public static void skipBytes(ByteBuffer buffer) {
+        int length = readCount(buffer);
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * Writes the string as UTF-8 bytes via {@link #writeBytes(ByteBuffer, byte[])}.
+     */
+    public static void writeString(ByteBuffer buffer, String string) {
+        writeBytes(buffer, string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(ByteBuffer, String)}.
+     */
+    public static String readString(ByteBuffer buffer) {
+        return new String(readBytes(buffer), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a length or number of entries. As every byte or entry takes at least one byte, it cannot exceed the
+     * number of remaining bytes.
+     *
+     * @return the length or number of entries
+     * @throws IllegalArgumentException if the read integer is negative or exceeds the remaining bytes
+     */
+    static int readCount(ByteBuffer buffer) {
+        int count;
+        try {
+            count = buffer.getInt();
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The encoded length is truncated", e);
+        }
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid length " + count + " with " + buffer.remaining()
+                    + " bytes remaining");
+        }
+        return count;
+    }
+}
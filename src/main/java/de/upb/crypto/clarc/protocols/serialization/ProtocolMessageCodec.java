@@ -0,0 +1,402 @@
+package de.upb.crypto.clarc.protocols.serialization;
+
+import de.upb.crypto.clarc.protocols.arguments.InteractiveThreeWayAoK;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrAnnouncement;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrChallenge;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrPublicParameter;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrResponse;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrResponseVector;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.structures.zn.Zp;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Binary encoding of the messages of an {@link InteractiveThreeWayAoK} and of {@link FiatShamirProof}s for it.
+ * <p>
+ * For a {@link GeneralizedSchnorrProtocol}, challenges and responses are written as fixed-width scalars (see
+ * {@link BinaryRepresentationCodec#writeScalar(ByteBuffer, de.upb.crypto.math.structures.zn.Zn.ZnElement)}) and
+ * announcements as the representation of their group element only, as the group is determined by the protocol. The
+ * messages of all other protocols, e.g. of the DamgardTechnique, are written as the binary encoding
+ * ({@link BinaryRepresentationCodec}) of their representation and restored via the protocol's recreate methods.
+ * <p>
+ * In any case, decoded messages are equal to the encoded ones and have the same representation.
+ */
+public class ProtocolMessageCodec {
+
+    private static final byte NAMED_RESPONSES = 0;
+    private static final byte RESPONSE_VECTOR = 1;
+
+    private final InteractiveThreeWayAoK protocol;
+
+    /**
+     * The ring of challenges and responses if {@link #protocol} is a generalized Schnorr protocol, null otherwise
+     */
+    private final Zp zp;
+
+    /**
+     * @param protocol the protocol whose messages are encoded
+     */
+    public ProtocolMessageCodec(InteractiveThreeWayAoK protocol) {
+        this.protocol = protocol;
+        if (protocol instanceof GeneralizedSchnorrProtocol) {
+            GeneralizedSchnorrProtocol schnorrProtocol = (GeneralizedSchnorrProtocol) protocol;
+            this.zp = new Zp(((GeneralizedSchnorrPublicParameter) schnorrProtocol.getPublicParameters()).getP());
+        } else {
+            this.zp = null;
+        }
+    }
+
+    public InteractiveThreeWayAoK getProtocol() {
+        return protocol;
+    }
+
+    public void writeAnnouncements(ByteBuffer buffer, Announcement[] announcements) {
+        writeAnnouncementRepresentations(buffer, getAnnouncementRepresentations(announcements));
+    }
+
+    /**
+     * @return the representations that are written for the given announcements
+     */
+    private Representation[] getAnnouncementRepresentations(Announcement[] announcements) {
+        Representation[] representations = new Representation[announcements.length];
+        for (int j = 0; j < announcements.length; j++) {
+            representations[j] = zp != null
+                    ? ((GeneralizedSchnorrAnnouncement) announcements[j]).getAnnouncement().getRepresentation()
+                    : announcements[j].getRepresentation();
+        }
+        return representations;
+    }
+
+    private static void writeAnnouncementRepresentations(ByteBuffer buffer, Representation[] representations) {
+        buffer.putInt(representations.length);
+        for (Representation representation : representations) {
+            BinaryRepresentationCodec.write(buffer, representation);
+        }
+    }
+
+    private static int getAnnouncementRepresentationsLength(Representation[] representations) {
+        long length = 4;
+        for (Representation representation : representations) {
+            length += BinaryRepresentationCodec.getEncodedLength(representation);
+        }
+        return BinaryRepresentationCodec.toLength(length);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the buffer does not contain valid announcements
+     */
+    public Announcement[] readAnnouncements(ByteBuffer buffer) {
+        int count = BinaryRepresentationCodec.readCount(buffer);
+        if (zp != null) {
+            GeneralizedSchnorrProtocol schnorrProtocol = (GeneralizedSchnorrProtocol) protocol;
+            if (count != schnorrProtocol.getProblems().length) {
+                throw new IllegalArgumentException("Expected " + schnorrProtocol.getProblems().length
+                        + " announcements, got " + count);
+            }
+            GeneralizedSchnorrAnnouncement[] announcements = new GeneralizedSchnorrAnnouncement[count];
+            for (int j = 0; j < count; j++) {
+                announcements[j] = new GeneralizedSchnorrAnnouncement(
+                        schnorrProtocol.getGroup(j).getElement(BinaryRepresentationCodec.read(buffer)));
+            }
+            return announcements;
+        }
+        Announcement[] announcements = new Announcement[count];
+        for (int j = 0; j < count; j++) {
+            announcements[j] = protocol.recreateAnnouncement(BinaryRepresentationCodec.read(buffer));
+        }
+        return announcements;
+    }
+
+    /**
+     * Skips the announcements at the current position of the buffer without decoding any group element. The
+     * structure of the encoding is validated as in {@link #readAnnouncements(ByteBuffer)}.
+     *
+     * @throws IllegalArgumentException if the buffer does not contain valid announcements
+     */
+    public void skipAnnouncements(ByteBuffer buffer) {
+        int count = BinaryRepresentationCodec.readCount(buffer);
+        if (zp != null && count != ((GeneralizedSchnorrProtocol) protocol).getProblems().length) {
+            throw new IllegalArgumentException("Expected " + ((GeneralizedSchnorrProtocol) protocol).getProblems()
+                    .length + " announcements, got " + count);
+        }
+        for (int j = 0; j < count; j++) {
+            BinaryRepresentationCodec.skip(buffer);
+        }
+    }
+
+    /**
+     * @param announcements announcements of the protocol of this codec
+     * @return the encoding of the announcements as written by {@link #writeAnnouncements(ByteBuffer, Announcement[])}
+     */
+    public byte[] encodeAnnouncements(Announcement[] announcements) {
+        Representation[] representations = getAnnouncementRepresentations(announcements);
+        ByteBuffer buffer = ByteBuffer.allocate(getAnnouncementRepresentationsLength(representations));
+        writeAnnouncementRepresentations(buffer, representations);
+        return buffer.array();
+    }
+
+    public void writeChallenge(ByteBuffer buffer, Challenge challenge) {
+        if (zp != null) {
+            BinaryRepresentationCodec.writeScalar(buffer, ((GeneralizedSchnorrChallenge) challenge).getChallenge());
+        } else {
+            BinaryRepresentationCodec.write(buffer, challenge.getRepresentation());
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the buffer does not contain a valid challenge
+     */
+    public Challenge readChallenge(ByteBuffer buffer) {
+        if (zp != null) {
+            return new GeneralizedSchnorrChallenge((Zp.ZpElement) BinaryRepresentationCodec.readScalar(buffer, zp));
+        }
+        return protocol.recreateChallenge(BinaryRepresentationCodec.read(buffer));
+    }
+
+    public void writeResponses(ByteBuffer buffer, Response[] responses) {
+        if (zp == null) {
+            buffer.putInt(responses.length);
+            for (Response response : responses) {
+                BinaryRepresentationCodec.write(buffer, response.getRepresentation());
+            }
+        } else if (responses.length == 1 && responses[0] instanceof GeneralizedSchnorrResponseVector) {
+            GeneralizedSchnorrResponseVector vector = (GeneralizedSchnorrResponseVector) responses[0];
+            buffer.put(RESPONSE_VECTOR);
+            buffer.putInt(vector.size());
+            for (int i = 0; i < vector.size(); i++) {
+                BinaryRepresentationCodec.writeScalar(buffer, vector.getResponse(i));
+            }
+        } else {
+            buffer.put(NAMED_RESPONSES);
+            buffer.putInt(responses.length);
+            for (Response response : responses) {
+                GeneralizedSchnorrResponse schnorrResponse = (GeneralizedSchnorrResponse) response;
+                BinaryRepresentationCodec.writeString(buffer, schnorrResponse.getVariableName());
+                BinaryRepresentationCodec.writeScalar(buffer, schnorrResponse.getResponse());
+            }
+        }
+    }
+
+    /**
+     * @param responses responses of the protocol of this codec
+     * @return the number of bytes written by {@link #writeResponses(ByteBuffer, Response[])}
+     * @throws IllegalArgumentException if the encoding does not fit into a byte array
+     */
+    public int getResponsesLength(Response[] responses) {
+        if (zp == null) {
+            long length = 4;
+            for (Response response : responses) {
+                length += BinaryRepresentationCodec.getEncodedLength(response.getRepresentation());
+            }
+            return BinaryRepresentationCodec.toLength(length);
+        }
+        long scalarLength = BinaryRepresentationCodec.getScalarLength(zp);
+        if (responses.length == 1 && responses[0] instanceof GeneralizedSchnorrResponseVector) {
+            return BinaryRepresentationCodec.toLength(
+                    1 + 4 + ((GeneralizedSchnorrResponseVector) responses[0]).size() * scalarLength);
+        }
+        long length = 1 + 4;
+        for (Response response : responses) {
+            String variableName = ((GeneralizedSchnorrResponse) response).getVariableName();
+            length += 4 + variableName.getBytes(StandardCharsets.UTF_8).length + scalarLength;
+        }
+        return BinaryRepresentationCodec.toLength(length);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the buffer does not contain valid responses
+     */
+    public Response[] readResponses(ByteBuffer buffer) {
+        if (zp == null) {
+            Response[] responses = new Response[BinaryRepresentationCodec.readCount(buffer)];
+            for (int i = 0; i < responses.length; i++) {
+                responses[i] = protocol.recreateResponse(BinaryRepresentationCodec.read(buffer));
+            }
+            return responses;
+        }
+
+        byte form;
+        try {
+            form = buffer.get();
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The encoded responses are truncated", e);
+        }
+        int count = BinaryRepresentationCodec.readCount(buffer);
+        switch (form) {
+            case RESPONSE_VECTOR: {
+                Zp.ZpElement[] values = new Zp.ZpElement[count];
+                for (int i = 0; i < count; i++) {
+                    values[i] = (Zp.ZpElement) BinaryRepresentationCodec.readScalar(buffer, zp);
+                }
+                return new Response[]{new GeneralizedSchnorrResponseVector(values)};
+            }
+            case NAMED_RESPONSES: {
+                Response[] responses = new Response[count];
+                for (int i = 0; i < count; i++) {
+                    String variableName = BinaryRepresentationCodec.readString(buffer);
+                    responses[i] = new GeneralizedSchnorrResponse(variableName,
+                            (Zp.ZpElement) BinaryRepresentationCodec.readScalar(buffer, zp));
+                }
+                return responses;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown response form " + form);
+        }
+    }
+
+    /**
+     * Skips the responses at the current position of the buffer. For a generalized Schnorr protocol, the responses are
+     * scalars that are decoded and checked to be elements of Z_p. For all other protocols, only the structure of the
+     * encoding is validated.
+     *
+     * @throws IllegalArgumentException if the buffer does not contain valid responses
+     */
+    public void skipResponses(ByteBuffer buffer) {
+        if (zp != null) {
+            readResponses(buffer);
+            return;
+        }
+        int count = BinaryRepresentationCodec.readCount(buffer);
+        for (int i = 0; i < count; i++) {
+            BinaryRepresentationCodec.skip(buffer);
+        }
+    }
+
+    /**
+     * Writes the announcements, the auxiliary data and the responses of the given proof.
+     *
+     * @param buffer the buffer to write to
+     * @param proof  a proof for the protocol of this codec
+     */
+    public void writeProof(ByteBuffer buffer, FiatShamirProof proof) {
+        writeProof(buffer, getAnnouncementRepresentations(proof), getAuxData(proof), getResponses(proof));
+    }
+
+    private void writeProof(ByteBuffer buffer, Representation[] announcementRepresentations, byte[][] auxData,
+                            Response[] responses) {
+        writeAnnouncementRepresentations(buffer, announcementRepresentations);
+        writeAuxData(buffer, auxData);
+        writeResponses(buffer, responses);
+    }
+
+    private Representation[] getAnnouncementRepresentations(FiatShamirProof proof) {
+        return getAnnouncementRepresentations(Arrays.stream(proof.getAnnouncementRepresentations())
+                .map(protocol::recreateAnnouncement)
+                .toArray(Announcement[]::new));
+    }
+
+    private static byte[][] getAuxData(FiatShamirProof proof) {
+        return Arrays.stream(proof.getAuxData())
+                .map(ByteArrayImplementation::getData)
+                .toArray(byte[][]::new);
+    }
+
+    private Response[] getResponses(FiatShamirProof proof) {
+        return Arrays.stream(proof.getResponseRepresentations())
+                .map(protocol::recreateResponse)
+                .toArray(Response[]::new);
+    }
+
+    private static void writeAuxData(ByteBuffer buffer, byte[][] auxData) {
+        buffer.putInt(auxData.length);
+        for (byte[] data : auxData) {
+            BinaryRepresentationCodec.writeBytes(buffer, data);
+        }
+    }
+
+    private static int getAuxDataLength(byte[][] auxData) {
+        long length = 4;
+        for (byte[] data : auxData) {
+            length += 4 + data.length;
+        }
+        return BinaryRepresentationCodec.toLength(length);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the buffer does not contain a valid proof
+     */
+    public FiatShamirProof readProof(ByteBuffer buffer) {
+        Announcement[] announcements = readAnnouncements(buffer);
+        ByteArrayImplementation[] auxData = new ByteArrayImplementation[BinaryRepresentationCodec.readCount(buffer)];
+        for (int i = 0; i < auxData.length; i++) {
+            auxData[i] = new ByteArrayImplementation(BinaryRepresentationCodec.readBytes(buffer));
+        }
+        return new FiatShamirProof(announcements, auxData, readResponses(buffer));
+    }
+
+    /**
+     * Reads the auxiliary data of an encoded proof (as written by {@link #writeProof(ByteBuffer, FiatShamirProof)})
+     * without copying it.
+     *
+     * @param buffer the buffer to read from, positioned at the auxiliary data
+     * @return read-only buffers sharing their content with {@code buffer}, one per auxiliary datum
+     * @throws IllegalArgumentException if the buffer does not contain valid auxiliary data
+     */
+    public ByteBuffer[] readAuxDataViews(ByteBuffer buffer) {
+        ByteBuffer[] auxData = new ByteBuffer[BinaryRepresentationCodec.readCount(buffer)];
+        for (int i = 0; i < auxData.length; i++) {
+            int length = BinaryRepresentationCodec.readCount(buffer);
+            ByteBuffer data = buffer.duplicate();
+            data.limit(data.position() + length);
+            auxData[i] = data.slice().asReadOnlyBuffer();
+            buffer.position(buffer.position() + length);
+        }
+        return auxData;
+    }
+
+    /**
+     * @param proof a proof for the protocol of this codec
+     * @return the encoding of the proof as written by {@link #writeProof(ByteBuffer, FiatShamirProof)}
+     */
+    public byte[] encodeProof(FiatShamirProof proof) {
+        Representation[] announcementRepresentations = getAnnouncementRepresentations(proof);
+        byte[][] auxData = getAuxData(proof);
+        Response[] responses = getResponses(proof);
+        long length = (long) getAnnouncementRepresentationsLength(announcementRepresentations)
+                + getAuxDataLength(auxData) + getResponsesLength(responses);
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryRepresentationCodec.toLength(length));
+        writeProof(buffer, announcementRepresentations, auxData, responses);
+        return buffer.array();
+    }
+
+    /**
+     * Encodes a proof from its parts. The result has the same layout as {@link #encodeProof(FiatShamirProof)}.
+     *
+     * @param encodedAnnouncements the announcements, encoded by {@link #encodeAnnouncements(Announcement[])}
+     * @param auxData              the auxiliary data
+     * @param responses            the responses
+     * @return the encoded proof
+     */
+    public byte[] encodeProof(byte[] encodedAnnouncements, byte[][] auxData, Response[] responses) {
+        long length = (long) encodedAnnouncements.length + getAuxDataLength(auxData) + getResponsesLength(responses);
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryRepresentationCodec.toLength(length));
+        buffer.put(encodedAnnouncements);
+        writeAuxData(buffer, auxData);
+        writeResponses(buffer, responses);
+        return buffer.array();
+    }
+
+    /**
+     * @param bytes the encoding of a proof for the protocol of this codec
+     * @return the decoded proof
+     * @throws IllegalArgumentException if the bytes are not exactly the encoding of a proof
+     */
+    public FiatShamirProof decodeProof(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        FiatShamirProof proof = readProof(buffer);
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected bytes after the encoded proof");
+        }
+        return proof;
+    }
+}
@@ -0,0 +1,141 @@
+package de.upb.crypto.clarc.protocols;
+
+import de.upb.crypto.clarc.protocols.expressions.FactBatch;
+import de.upb.crypto.clarc.protocols.expressions.IndexedGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.IndexedZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.comparison.CompiledPolicy;
+import de.upb.crypto.clarc.protocols.expressions.comparison.TautologyExpression;
+import de.upb.crypto.clarc.protocols.serialization.classes.ExpressionTestdataProvider;
+import de.upb.crypto.craco.interfaces.policy.Policy;
+import de.upb.crypto.craco.interfaces.policy.ThresholdPolicy;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.Zn;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CompiledPolicyTest {
+
+    private ExpressionTestdataProvider provider;
+
+    @BeforeAll
+    public void setUp() {
+        provider = new ExpressionTestdataProvider();
+    }
+
+    private List<Policy> getPolicies() {
+        return Arrays.asList(provider.getZnElementEqualityExpression(), provider.getZnElementInequalityExpression(),
+                provider.getGroupElementEqualityExpression(), provider.getGroupElementInequalityExpression(),
+                provider.getInIntervalExoression(), new TautologyExpression());
+    }
+
+    @Test
+    public void sameResultAsPolicyTest() {
+        for (Policy policy : getPolicies()) {
+            CompiledPolicy compiled = CompiledPolicy.compile(policy);
+            assertEquals(policy.isFulfilled(provider.getFacts()), compiled.isFulfilled(provider.getFacts()),
+                    policy.toString());
+        }
+    }
+
+    @Test
+    public void thresholdTest() {
+        List<Policy> policies = getPolicies();
+        long fulfilled = policies.stream().filter(policy -> policy.isFulfilled(provider.getFacts())).count();
+        for (int threshold = 1; threshold <= policies.size(); threshold++) {
+            CompiledPolicy compiled = CompiledPolicy.compile(new ThresholdPolicy(threshold, policies));
+            assertEquals(threshold <= fulfilled, compiled.isFulfilled(provider.getFacts()));
+        }
+    }
+
+    @Test
+    public void sharedVariablesTest() {
+        // Both policies share variables, but assign them to different slots
+        Policy single = provider.getZnElementEqualityExpression();
+        Policy all = new ThresholdPolicy(1, getPolicies());
+        CompiledPolicy compiledSingle = CompiledPolicy.compile(single);
+        CompiledPolicy compiledAll = CompiledPolicy.compile(all);
+        assertNotEquals(compiledSingle.getSlots(), compiledAll.getSlots());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(single.isFulfilled(provider.getFacts()), compiledSingle.isFulfilled(provider.getFacts()));
+            assertEquals(all.isFulfilled(provider.getFacts()), compiledAll.isFulfilled(provider.getFacts()));
+        }
+    }
+
+    @Test
+    public void indexedFactsTest() {
+        CompiledPolicy compiled = CompiledPolicy.compile(provider.getZnElementEqualityExpression());
+        IndexedZnElementPolicyFacts znFacts = new IndexedZnElementPolicyFacts(compiled.getSlots(),
+                provider.getValueMapZp());
+        IndexedGroupElementPolicyFacts groupFacts = new IndexedGroupElementPolicyFacts(compiled.getSlots(),
+                provider.getValueMapGroup());
+        assertEquals(provider.getZnElementEqualityExpression().isFulfilled(provider.getFacts()),
+                compiled.isFulfilled(groupFacts, znFacts));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> compiled.isFulfilled(provider.getIndexedGroupFacts(), provider.getIndexedZnFacts()));
+    }
+
+    @Test
+    public void batchTest() {
+        // 2 + 4 = 2 * threeZp holds exactly in the rows with threeZp = 3
+        int size = 3 * 64 + 5;
+        Zn.ZnElement[] twoColumn = new Zn.ZnElement[size];
+        Zn.ZnElement[] threeColumn = new Zn.ZnElement[size];
+        for (int row = 0; row < size; row++) {
+            twoColumn[row] = provider.getTwoZp();
+            threeColumn[row] = provider.getZpForArithExpr().createZnElement(BigInteger.valueOf(row % 7));
+        }
+        Map<String, Zn.ZnElement[]> znColumns = new HashMap<>();
+        znColumns.put("twoZp", twoColumn);
+        znColumns.put("threeZp", threeColumn);
+        FactBatch batch = new FactBatch(size, znColumns, Collections.<String, GroupElement[]>emptyMap());
+
+        BitSet fulfilled = CompiledPolicy.compile(provider.getZnElementEqualityExpression()).isFulfilled(batch);
+        for (int row = 0; row < size; row++) {
+            assertEquals(row % 7 == 3, fulfilled.get(row), "row " + row);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new FactBatch(size + 1, znColumns,
+                Collections.<String, GroupElement[]>emptyMap()));
+    }
+
+    @Test
+    public void batchWithMissingValuesTest() {
+        // rows 1 and 3 fulfill the policy, row 2 has no value for threeZp
+        int size = 4;
+        Zn.ZnElement[] twoColumn = new Zn.ZnElement[size];
+        Zn.ZnElement[] threeColumn = new Zn.ZnElement[size];
+        for (int row = 0; row < size; row++) {
+            twoColumn[row] = provider.getTwoZp();
+            threeColumn[row] = provider.getZpForArithExpr().createZnElement(BigInteger.valueOf(row % 2 == 1 ? 3 : 0));
+        }
+        threeColumn[2] = null;
+        Map<String, Zn.ZnElement[]> znColumns = new HashMap<>();
+        znColumns.put("twoZp", twoColumn);
+        znColumns.put("threeZp", threeColumn);
+        FactBatch batch = new FactBatch(size, znColumns, Collections.<String, GroupElement[]>emptyMap());
+
+        BitSet fulfilled = CompiledPolicy.compile(provider.getZnElementEqualityExpression()).isFulfilled(batch);
+        BitSet expected = new BitSet(size);
+        expected.set(1);
+        expected.set(3);
+        assertEquals(expected, fulfilled);
+
+        znColumns.remove("threeZp");
+        BitSet withoutColumn = CompiledPolicy.compile(provider.getZnElementEqualityExpression())
+                .isFulfilled(new FactBatch(size, znColumns, Collections.<String, GroupElement[]>emptyMap()));
+        assertTrue(withoutColumn.isEmpty());
+    }
+}
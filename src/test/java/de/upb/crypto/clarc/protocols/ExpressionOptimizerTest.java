@@ -0,0 +1,120 @@
+package de.upb.crypto.clarc.protocols;
+
+import de.upb.crypto.clarc.protocols.expressions.SimpleZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.SuperGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.SuperZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.arith.ArithGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ArithZnElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ExpressionOptimizer;
+import de.upb.crypto.clarc.protocols.expressions.arith.InverseGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.NumberGroupElementLiteral;
+import de.upb.crypto.clarc.protocols.expressions.arith.NumberZnElementLiteral;
+import de.upb.crypto.clarc.protocols.expressions.arith.PowerGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ProductGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ProductZnExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ZnVariable;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GenSchnorrTestdataProvider;
+import de.upb.crypto.math.interfaces.structures.Group;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.Zn;
+import de.upb.crypto.math.structures.zn.Zp;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ExpressionOptimizerTest {
+    private Group group;
+    private Zp zp;
+    private SuperGroupElementPolicyFacts groupFacts;
+    private SuperZnElementPolicyFacts znFacts;
+
+    @BeforeAll
+    public void setUp() {
+        GenSchnorrTestdataProvider provider = new GenSchnorrTestdataProvider();
+        group = provider.generateGenSchnorrGroups()[0];
+        zp = provider.generateGenSchnorrZPGroup(group);
+
+        Map<String, Zn.ZnElement> values = new HashMap<>();
+        values.put("x", zp.getUniformlyRandomElement());
+        values.put("y", zp.getUniformlyRandomElement());
+        groupFacts = new SuperGroupElementPolicyFacts();
+        znFacts = new SuperZnElementPolicyFacts(Collections.singletonList(new SimpleZnElementPolicyFacts(values)));
+    }
+
+    @Test
+    public void testConstantFolding() {
+        ExpressionOptimizer optimizer = new ExpressionOptimizer();
+        GroupElement g = group.getUniformlyRandomNonNeutral();
+        Zp.ZpElement exponent = zp.getUniformlyRandomElement();
+        ArithGroupElementExpression expression = new InverseGroupElementExpression(
+                new PowerGroupElementExpression(new NumberGroupElementLiteral(g), new NumberZnElementLiteral(exponent)));
+
+        ArithGroupElementExpression optimized = optimizer.optimize(expression);
+        assertTrue(optimized instanceof NumberGroupElementLiteral);
+        assertEquals(g.pow(exponent).inv(), optimized.calculateResult(groupFacts, znFacts));
+    }
+
+    @Test
+    public void testMergePowers() {
+        ExpressionOptimizer optimizer = new ExpressionOptimizer();
+        NumberGroupElementLiteral g = new NumberGroupElementLiteral(group.getUniformlyRandomNonNeutral());
+        NumberGroupElementLiteral h = new NumberGroupElementLiteral(group.getUniformlyRandomNonNeutral());
+
+        // g^x * (h * g^y)^(-1)^(-1)
+        ArithGroupElementExpression expression = new ProductGroupElementExpression(
+                new PowerGroupElementExpression(g, new ZnVariable("x")),
+                new InverseGroupElementExpression(new InverseGroupElementExpression(
+                        new ProductGroupElementExpression(h, new PowerGroupElementExpression(g, new ZnVariable("y"))))));
+
+        ArithGroupElementExpression optimized = optimizer.optimize(expression);
+        assertEquals(expression.calculateResult(groupFacts, znFacts), optimized.calculateResult(groupFacts, znFacts));
+
+        // g^(x+y) * h
+        assertTrue(optimized instanceof ProductGroupElementExpression);
+        assertEquals(2, ((ProductGroupElementExpression) optimized).getElements().size());
+    }
+
+    @Test
+    public void testFoldInverseOfPower() {
+        ExpressionOptimizer optimizer = new ExpressionOptimizer();
+        GroupElement g = group.getUniformlyRandomNonNeutral();
+        ArithGroupElementExpression expression = new InverseGroupElementExpression(
+                new PowerGroupElementExpression(new NumberGroupElementLiteral(g), new ZnVariable("x")));
+
+        ArithGroupElementExpression optimized = optimizer.optimize(expression);
+        assertEquals(new PowerGroupElementExpression(new NumberGroupElementLiteral(g.inv()), new ZnVariable("x")),
+                optimized);
+        assertEquals(expression.calculateResult(groupFacts, znFacts), optimized.calculateResult(groupFacts, znFacts));
+    }
+
+    @Test
+    public void testCommonSubexpressions() {
+        ExpressionOptimizer optimizer = new ExpressionOptimizer();
+        NumberGroupElementLiteral g = new NumberGroupElementLiteral(group.getUniformlyRandomNonNeutral());
+        NumberGroupElementLiteral h = new NumberGroupElementLiteral(group.getUniformlyRandomNonNeutral());
+        ArithZnElementExpression first = new ProductZnExpression(
+                Arrays.asList(new ZnVariable("x"), new ZnVariable("y")));
+        ArithZnElementExpression second = new ProductZnExpression(
+                Arrays.asList(new ZnVariable("x"), new ZnVariable("y")));
+
+        // Equal subtrees of one expression are shared
+        ProductGroupElementExpression product = (ProductGroupElementExpression) optimizer.optimize(
+                new ProductGroupElementExpression(new PowerGroupElementExpression(g, first),
+                        new PowerGroupElementExpression(h, second)));
+        assertSame(((PowerGroupElementExpression) product.getElements().get(0)).getRHS(),
+                ((PowerGroupElementExpression) product.getElements().get(1)).getRHS());
+
+        // Optimizing equal expressions in separate calls yields equal results
+        assertEquals(optimizer.optimize(first), optimizer.optimize(second));
+    }
+}
@@ -1,10 +1,21 @@
 package de.upb.crypto.clarc.protocols;
 
+import de.upb.crypto.clarc.protocols.expressions.SuperGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.SuperZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.arith.NumberGroupElementLiteral;
+import de.upb.crypto.clarc.protocols.expressions.arith.PairingGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ProductGroupElementExpression;
 import de.upb.crypto.clarc.protocols.serialization.classes.ExpressionTestdataProvider;
+import de.upb.crypto.math.factory.BilinearGroup;
+import de.upb.crypto.math.factory.BilinearGroupFactory;
+import de.upb.crypto.math.interfaces.mappings.BilinearMap;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.math.BigInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 
@@ -40,6 +51,33 @@ public class GroupElementArithExpressionTest {
     }
 
 
+    @Test
+    public void productOfPairingsTest() {
+        BilinearGroupFactory factory = new BilinearGroupFactory(60);
+        factory.setRequirements(BilinearGroup.Type.TYPE_3);
+        factory.setDebugMode(true);
+        BilinearMap map = factory.createBilinearGroup().getBilinearMap();
+        SuperGroupElementPolicyFacts groupFacts = new SuperGroupElementPolicyFacts();
+        SuperZnElementPolicyFacts znFacts = new SuperZnElementPolicyFacts();
+
+        GroupElement g1 = map.getG1().getUniformlyRandomNonNeutral();
+        GroupElement g2 = map.getG1().getUniformlyRandomNonNeutral();
+        GroupElement h1 = map.getG2().getUniformlyRandomNonNeutral();
+        GroupElement h2 = map.getG2().getUniformlyRandomNonNeutral();
+        GroupElement t = map.getGT().getUniformlyRandomNonNeutral();
+        BigInteger exponent = BigInteger.valueOf(5);
+        GroupElement expected = map.apply(g1, h1).op(map.apply(g2, h2, exponent)).op(t);
+
+        ProductGroupElementExpression product = new ProductGroupElementExpression(
+                new PairingGroupElementExpression(map, new NumberGroupElementLiteral(g1),
+                        new NumberGroupElementLiteral(h1)),
+                new NumberGroupElementLiteral(t),
+                new PairingGroupElementExpression(map, new NumberGroupElementLiteral(g2),
+                        new NumberGroupElementLiteral(h2), exponent));
+        assertEquals(expected, product.calculateResult(groupFacts, znFacts));
+        assertEquals(expected, product.resultAsEfficientExpression(groupFacts, znFacts).evaluate());
+    }
+
     /*@Test
     public void simplePowerTest() {
         assertEquals(provider.getEightGroup(), provider.getPowerGroupElementExpression().calculateResult(
@@ -0,0 +1,97 @@
+package de.upb.crypto.clarc.protocols;
+
+import de.upb.crypto.clarc.protocols.expressions.SuperGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.SuperZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.arith.ArithGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.MultiExponentiation;
+import de.upb.crypto.clarc.protocols.expressions.arith.NumberGroupElementLiteral;
+import de.upb.crypto.clarc.protocols.expressions.arith.NumberZnElementLiteral;
+import de.upb.crypto.clarc.protocols.expressions.arith.PowerGroupElementExpression;
+import de.upb.crypto.clarc.protocols.expressions.arith.ProductGroupElementExpression;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GenSchnorrTestdataProvider;
+import de.upb.crypto.math.interfaces.structures.Group;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.Zp;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MultiExponentiationTest {
+    private Group group;
+    private Zp zp;
+
+    @BeforeAll
+    public void setUp() {
+        GenSchnorrTestdataProvider provider = new GenSchnorrTestdataProvider();
+        group = provider.generateGenSchnorrGroups()[0];
+        zp = provider.generateGenSchnorrZPGroup(group);
+    }
+
+    @Test
+    public void testStraus() {
+        checkAgainstSingleExponentiations(3);
+    }
+
+    @Test
+    public void testPippenger() {
+        checkAgainstSingleExponentiations(MultiExponentiation.PIPPENGER_THRESHOLD + 8);
+    }
+
+    @Test
+    public void testSpecialExponents() {
+        GroupElement g = group.getUniformlyRandomNonNeutral();
+        GroupElement h = group.getUniformlyRandomNonNeutral();
+
+        assertTrue(MultiExponentiation.compute(new GroupElement[]{g, h},
+                new BigInteger[]{BigInteger.ZERO, BigInteger.ZERO}).isNeutralElement());
+        assertEquals(g.inv().op(h), MultiExponentiation.compute(new GroupElement[]{g, h},
+                new BigInteger[]{BigInteger.ONE.negate(), BigInteger.ONE}));
+        assertThrows(IllegalArgumentException.class,
+                () -> MultiExponentiation.compute(new GroupElement[]{g}, new BigInteger[0]));
+    }
+
+    @Test
+    public void testProductExpression() {
+        SuperGroupElementPolicyFacts groupFacts = new SuperGroupElementPolicyFacts();
+        SuperZnElementPolicyFacts znFacts = new SuperZnElementPolicyFacts();
+
+        GroupElement expected = group.getNeutralElement();
+        List<ArithGroupElementExpression> factors = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            GroupElement base = group.getUniformlyRandomNonNeutral();
+            Zp.ZpElement exponent = zp.getUniformlyRandomElement();
+            expected = expected.op(base.pow(exponent));
+            factors.add(new PowerGroupElementExpression(new NumberGroupElementLiteral(base),
+                    new NumberZnElementLiteral(exponent)));
+        }
+        //Factors that are not powers are multiplied afterwards
+        GroupElement other = group.getUniformlyRandomNonNeutral();
+        expected = expected.op(other);
+        factors.add(new NumberGroupElementLiteral(other));
+
+        ProductGroupElementExpression product = new ProductGroupElementExpression(factors);
+        assertEquals(expected, product.calculateResult(groupFacts, znFacts));
+        assertEquals(expected, product.resultAsEfficientExpression(groupFacts, znFacts).evaluate());
+    }
+
+    private void checkAgainstSingleExponentiations(int numberOfBases) {
+        GroupElement[] bases = new GroupElement[numberOfBases];
+        BigInteger[] exponents = new BigInteger[numberOfBases];
+        GroupElement expected = group.getNeutralElement();
+        for (int i = 0; i < numberOfBases; i++) {
+            bases[i] = group.getUniformlyRandomNonNeutral();
+            exponents[i] = zp.getUniformlyRandomElement().getInteger();
+            expected = expected.op(bases[i].pow(exponents[i]));
+        }
+        assertEquals(expected, MultiExponentiation.compute(bases, exponents));
+    }
+}
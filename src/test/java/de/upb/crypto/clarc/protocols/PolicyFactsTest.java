@@ -0,0 +1,98 @@
+package de.upb.crypto.clarc.protocols;
+
+import de.upb.crypto.clarc.protocols.expressions.IndexedGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.IndexedZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.SimpleGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.SimpleZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.SuperZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.VariableSlots;
+import de.upb.crypto.clarc.protocols.serialization.classes.ExpressionTestdataProvider;
+import de.upb.crypto.math.structures.zn.Zn;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PolicyFactsTest {
+
+    private ExpressionTestdataProvider provider;
+
+    @BeforeAll
+    public void setUp() {
+        provider = new ExpressionTestdataProvider();
+    }
+
+    @Test
+    public void bindVariablesTest() {
+        VariableSlots slots = VariableSlots.bind(provider.getAdditionZnExpression(),
+                provider.getInverseGroupElementExpression());
+        for (int i = 0; i < slots.size(); i++) {
+            assertEquals(i, slots.indexOf(slots.getName(i)));
+        }
+        assertTrue(slots.indexOf("twoZp") >= 0);
+        assertEquals(-1, slots.indexOf("undefined"));
+    }
+
+    @Test
+    public void indexedFactsTest() {
+        IndexedZnElementPolicyFacts znFacts = provider.getIndexedZnFacts();
+        IndexedGroupElementPolicyFacts groupFacts = provider.getIndexedGroupFacts();
+
+        int slot = znFacts.getSlots().indexOf("sixZp");
+        assertEquals(provider.getSixZp(), znFacts.getFact(slot));
+        assertEquals(provider.getSixZp(), znFacts.getFact("sixZp"));
+        assertNull(znFacts.getFact("undefined"));
+        assertEquals(provider.getValueMapZp(), znFacts.getFacts());
+
+        // Variables and expressions evaluate to the same results as with map based facts
+        assertEquals(provider.getSixZp(), provider.getVar6Zp().calculateResult(groupFacts, znFacts));
+        assertEquals(provider.getAdditionZnExpression().calculateResult(provider.getGroupFacts(),
+                provider.getZnFacts()), provider.getAdditionZnExpression().calculateResult(groupFacts, znFacts));
+        assertEquals(provider.getInverseGroupElementExpression().calculateResult(provider.getGroupFacts(),
+                provider.getZnFacts()), provider.getInverseGroupElementExpression().calculateResult(groupFacts,
+                znFacts));
+
+        IndexedZnElementPolicyFacts otherFacts = new IndexedZnElementPolicyFacts(
+                VariableSlots.of(Collections.singletonList("sixZp")), new Zn.ZnElement[]{provider.getTwoZp()});
+        assertEquals(provider.getTwoZp(), provider.getVar6Zp().calculateResult(groupFacts, otherFacts));
+        assertThrows(IllegalArgumentException.class,
+                () -> provider.getVar2Zp().calculateResult(groupFacts, otherFacts));
+    }
+
+    @Test
+    public void lookupWithoutCopyTest() {
+        SimpleZnElementPolicyFacts simpleFacts = provider.getZnFacts();
+        assertEquals(provider.getTwoZp(), simpleFacts.getFact("twoZp"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> simpleFacts.getFacts().put("twoZp", provider.getThreeZp()));
+
+        // Later facts take precedence, as when merging the maps
+        List<SimpleZnElementPolicyFacts> facts = new ArrayList<>();
+        facts.add(simpleFacts);
+        facts.add(new SimpleZnElementPolicyFacts(Collections.singletonMap("twoZp", provider.getThreeZp())));
+        SuperZnElementPolicyFacts superFacts = new SuperZnElementPolicyFacts(facts);
+        assertEquals(superFacts.getFacts().get("twoZp"), superFacts.getFact("twoZp"));
+        assertEquals(provider.getSixZp(), superFacts.getFact("sixZp"));
+        assertNull(superFacts.getFact("undefined"));
+    }
+
+    @Test
+    public void lazyRepresentationTest() {
+        SimpleZnElementPolicyFacts facts = new SimpleZnElementPolicyFacts(provider.getValueMapZp());
+        facts.addElement("added", provider.getEightZp());
+
+        SimpleZnElementPolicyFacts recreated = new SimpleZnElementPolicyFacts(facts.getRepresentation());
+        assertEquals(facts, recreated);
+        assertEquals(provider.getEightZp(), recreated.getFact("added"));
+
+        SimpleGroupElementPolicyFacts groupFacts = new SimpleGroupElementPolicyFacts(provider.getValueMapGroup());
+        groupFacts.addElement("added", provider.getEightGroup());
+        assertEquals(groupFacts, new SimpleGroupElementPolicyFacts(groupFacts.getRepresentation()));
+    }
+}
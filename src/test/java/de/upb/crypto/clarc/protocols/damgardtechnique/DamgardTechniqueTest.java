@@ -1,10 +1,19 @@
 package de.upb.crypto.clarc.protocols.damgardtechnique;
 
 import de.upb.crypto.clarc.protocols.InteractiveThreeWayAoKTester;
+import de.upb.crypto.clarc.protocols.arguments.BatchVerifiableThreeWayAoK;
+import de.upb.crypto.clarc.protocols.arguments.InteractiveThreeWayAoK;
+import de.upb.crypto.clarc.protocols.arguments.PrecomputableThreeWayAoK;
+import de.upb.crypto.clarc.protocols.arguments.ProverSession;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GenSchnorrTestdataProvider;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProblem;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrPublicParameter;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.PrecomputedAnnouncement;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.clarc.protocols.simulator.SigmaProtocolTranscript;
 import de.upb.crypto.craco.commitment.HashThenCommitCommitmentScheme;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentSchemePublicParametersGen;
@@ -16,6 +25,19 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class DamgardTechniqueTest {
@@ -36,6 +58,9 @@ public class DamgardTechniqueTest {
     private DamgardTechnique damgardVerifier;
     private PedersenCommitmentScheme pedersenCommitmentScheme;
     private HashThenCommitCommitmentScheme hashThenCommitCommitmentScheme;
+    private HashDamgardTechnique hashDamgardProver;
+    private HashDamgardTechnique secondHashDamgardProver;
+    private HashDamgardTechnique hashDamgardVerifier;
 
     @BeforeAll
     public void setUp() {
@@ -59,6 +84,9 @@ public class DamgardTechniqueTest {
         damgardProver = new DamgardTechnique(protocolProver, hashThenCommitCommitmentScheme);
         secondDamgardProver = new DamgardTechnique(secondProtocolProver, hashThenCommitCommitmentScheme);
         damgardVerifier = new DamgardTechnique(protocolVerifier, hashThenCommitCommitmentScheme);
+        hashDamgardProver = new HashDamgardTechnique(protocolProver);
+        secondHashDamgardProver = new HashDamgardTechnique(secondProtocolProver);
+        hashDamgardVerifier = new HashDamgardTechnique(protocolVerifier);
     }
 
     /**
@@ -104,4 +132,106 @@ public class DamgardTechniqueTest {
     public void recreateTest() {
         InteractiveThreeWayAoKTester.recreateTest(damgardProver, damgardVerifier);
     }
+
+    @Test
+    public void testHashDamgard() {
+        InteractiveThreeWayAoKTester.protocolExecutionInternalRandomnessTest(hashDamgardProver, hashDamgardVerifier);
+        InteractiveThreeWayAoKTester.protocolExecutionInternalRandomnessNegativeTest(hashDamgardProver,
+                secondHashDamgardProver, hashDamgardVerifier);
+        InteractiveThreeWayAoKTester.recreateTest(hashDamgardProver, hashDamgardVerifier);
+    }
+
+    /**
+     * Checks that the verifier rejects a response whose opening does not open the commitment.
+     */
+    @Test
+    public void testHashDamgardWrongOpening() {
+        Announcement[] a = hashDamgardProver.generateAnnouncements();
+        Challenge c = hashDamgardVerifier.chooseChallenge();
+        HashDamgardResponse r = (HashDamgardResponse) hashDamgardProver.generateResponses(c)[0];
+        assertTrue(hashDamgardVerifier.verify(a, c, new Response[]{r}));
+
+        byte[] opening = r.getOpening();
+        opening[0] ^= 1;
+        Response wrongOpening = new HashDamgardResponse(r.getAnnouncements(), r.getResponses(), opening);
+        assertFalse(hashDamgardVerifier.verify(a, c, new Response[]{wrongOpening}));
+    }
+
+    /**
+     * Checks that a batch of valid sessions is accepted, and that a batch containing an invalid session is rejected
+     * with the invalid session being pinpointed.
+     */
+    @Test
+    public void testBatchVerification() {
+        testBatchVerification(damgardProver, damgardVerifier);
+        testBatchVerification(hashDamgardProver, hashDamgardVerifier);
+    }
+
+    /**
+     * Checks the commitment openings of a batch on an executor.
+     */
+    @Test
+    public void testBatchVerificationOnExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            damgardVerifier.setExecutor(executor);
+            hashDamgardVerifier.setExecutor(executor);
+            testBatchVerification(damgardProver, damgardVerifier);
+            testBatchVerification(hashDamgardProver, hashDamgardVerifier);
+        } finally {
+            damgardVerifier.setExecutor(null);
+            hashDamgardVerifier.setExecutor(null);
+            executor.shutdown();
+        }
+    }
+
+    private <T extends InteractiveThreeWayAoK & BatchVerifiableThreeWayAoK> void testBatchVerification(
+            InteractiveThreeWayAoK prover, T verifier) {
+        List<SigmaProtocolTranscript> transcripts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Announcement[] a = prover.generateAnnouncements();
+            Challenge c = verifier.chooseChallenge();
+            transcripts.add(new SigmaProtocolTranscript(a, c, prover.generateResponses(c), protocolProver));
+        }
+        assertTrue(verifier.verifyBatch(transcripts));
+        assertEquals(Collections.emptyList(), verifier.findInvalidTranscripts(transcripts));
+
+        // replace the challenge of the third session
+        SigmaProtocolTranscript valid = transcripts.get(2);
+        Challenge otherChallenge;
+        do {
+            otherChallenge = verifier.chooseChallenge();
+        } while (otherChallenge.equals(valid.getChallenge()));
+        transcripts.set(2, new SigmaProtocolTranscript(valid.getAnnouncements(), otherChallenge,
+                valid.getResponses(), protocolProver));
+        assertFalse(verifier.verifyBatch(transcripts));
+        assertEquals(Collections.singletonList(2), verifier.findInvalidTranscripts(transcripts));
+    }
+
+    /**
+     * Runs concurrent sessions on a single prover instance and checks that every session is accepted and can only
+     * answer one challenge.
+     */
+    @Test
+    public void testProverSessions() {
+        testProverSessions(damgardProver, damgardVerifier);
+        testProverSessions(hashDamgardProver, hashDamgardVerifier);
+    }
+
+    private void testProverSessions(PrecomputableThreeWayAoK prover, InteractiveThreeWayAoK verifier) {
+        List<ProverSession> sessions = IntStream.range(0, 4).parallel()
+                .mapToObj(i -> new ProverSession(prover))
+                .collect(Collectors.toList());
+        sessions.parallelStream().forEach(session -> {
+            Challenge c = verifier.chooseChallenge();
+            assertTrue(verifier.verify(session.getAnnouncements(), c, session.generateResponses(c)));
+            assertTrue(session.isFinished());
+            assertThrows(IllegalStateException.class, () -> session.generateResponses(c));
+        });
+
+        // announcements precomputed by a different instance are rejected
+        PrecomputedAnnouncement other = secondDamgardProver.precomputeAnnouncement();
+        assertThrows(IllegalArgumentException.class, () -> prover.generateResponses(verifier.chooseChallenge(),
+                other));
+    }
 }
@@ -4,14 +4,21 @@ import de.upb.crypto.clarc.protocols.arguments.InteractiveThreeWayAoK;
 import de.upb.crypto.clarc.protocols.arguments.SigmaProtocol;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.Proof;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.StreamingHashAccumulator;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirCompactProof;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProofView;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GenSchnorrTestdataProvider;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrPublicParameter;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.clarc.protocols.serialization.BinaryRepresentationCodec;
+import de.upb.crypto.clarc.protocols.serialization.ProtocolMessageCodec;
 import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
+import de.upb.crypto.math.hash.impl.ByteArrayAccumulator;
 import de.upb.crypto.math.hash.impl.SHA256HashFunction;
+import de.upb.crypto.math.interfaces.hash.UniqueByteRepresentable;
 import de.upb.crypto.math.interfaces.structures.Group;
 import de.upb.crypto.math.structures.zn.Zp;
 import org.junit.jupiter.api.BeforeAll;
@@ -19,7 +26,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -131,4 +144,191 @@ public class FiatShamirHeuristicTest {
                 new FiatShamirProof(announcementsSecondProver, proofFirstProver.getAuxData(), responsesSecondProver);
         assertFalse(fiatShamirForVerifier.verify(wrongProof));
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks that {@link FiatShamirHeuristic#verifyAll} accepts a list of valid proofs and pinpoints an invalid proof
+     * contained in the list.
+     */
+    @Test
+    public void testVerifyAll() {
+        List<FiatShamirProof> proofs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            proofs.add(fiatShamirForProver.prove(new ByteArrayImplementation(new byte[]{(byte) i})));
+        }
+        assertArrayEquals(new boolean[]{true, true, true, true}, fiatShamirForVerifier.verifyAll(proofs));
+
+        // Proof with aux data of a different proof, i.e. the challenge does not match
+        FiatShamirProof validProof = proofs.get(1);
+        InteractiveThreeWayAoK protocol = fiatShamirForProver.getProtocol();
+        FiatShamirProof wrongProof = new FiatShamirProof(
+                Arrays.stream(validProof.getAnnouncementRepresentations()).map(protocol::recreateAnnouncement)
+                        .toArray(Announcement[]::new),
+                proofs.get(2).getAuxData(),
+                Arrays.stream(validProof.getResponseRepresentations()).map(protocol::recreateResponse)
+                        .toArray(Response[]::new));
+        proofs.set(1, wrongProof);
+        assertArrayEquals(new boolean[]{true, false, true, true}, fiatShamirForVerifier.verifyAll(proofs));
+    }
+
+    /**
+     * Checks that the heuristic and its protocol can not share an executor, which could deadlock in
+     * {@link FiatShamirHeuristic#verifyAll}.
+     */
+    @Test
+    public void testSharedExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        GeneralizedSchnorrProtocol protocol = (GeneralizedSchnorrProtocol) fiatShamirForVerifier.getProtocol();
+        try {
+            protocol.setExecutor(executor);
+            assertThrows(IllegalArgumentException.class, () -> fiatShamirForVerifier.setExecutor(executor));
+
+            protocol.setExecutor(null);
+            fiatShamirForVerifier.setExecutor(executor);
+            protocol.setExecutor(executor);
+            List<FiatShamirProof> proofs = new ArrayList<>();
+            proofs.add(fiatShamirForProver.prove(new ByteArrayImplementation(new byte[]{0})));
+            assertThrows(IllegalStateException.class, () -> fiatShamirForVerifier.verifyAll(proofs));
+        } finally {
+            protocol.setExecutor(null);
+            fiatShamirForVerifier.setExecutor(null);
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Checks that a {@link FiatShamirCompactProof} verifies, survives serialization and is rejected for different aux
+     * data.
+     */
+    @Test
+    public void testCompactProof() {
+        FiatShamirCompactProof compactProof = fiatShamirForProver.proveCompact(new ByteArrayImplementation("Test"
+                .getBytes()));
+        assertTrue(fiatShamirForVerifier.verify(compactProof));
+
+        FiatShamirCompactProof recreatedProof = new FiatShamirCompactProof(compactProof.getRepresentation());
+        assertEquals(compactProof, recreatedProof);
+        assertTrue(fiatShamirForVerifier.verify(recreatedProof));
+
+        InteractiveThreeWayAoK protocol = fiatShamirForProver.getProtocol();
+        FiatShamirCompactProof wrongProof = new FiatShamirCompactProof(
+                protocol.recreateChallenge(compactProof.getChallengeRepresentation()),
+                new ByteArrayImplementation[]{new ByteArrayImplementation("Other".getBytes())},
+                Arrays.stream(compactProof.getResponseRepresentations()).map(protocol::recreateResponse)
+                        .toArray(Response[]::new));
+        assertFalse(fiatShamirForVerifier.verify(wrongProof));
+    }
+
+    /**
+     * Checks that incremental hashing yields the same challenge hash as hashing the accumulated bytes at once.
+     */
+    @Test
+    public void testStreamingHash() {
+        SHA256HashFunction hashFunction = new SHA256HashFunction();
+        assertTrue(StreamingHashAccumulator.isSupported(hashFunction));
+
+        Announcement[] announcements = protocolForVerifier.getSimulator()
+                .simulate(protocolForVerifier.chooseChallenge()).getAnnouncements();
+        byte[] largeAuxData = new byte[1 << 20];
+        new Random().nextBytes(largeAuxData);
+        UniqueByteRepresentable[] auxData = {new ByteArrayImplementation(largeAuxData),
+                new ByteArrayImplementation("Test".getBytes())};
+
+        ByteArrayAccumulator accumulator = new ByteArrayAccumulator();
+        for (Announcement announcement : announcements) {
+            accumulator.append(announcement.getUniqueByteRepresentation());
+            accumulator.appendSeperator();
+        }
+        for (UniqueByteRepresentable data : auxData) {
+            accumulator.append(data.getUniqueByteRepresentation());
+            accumulator.appendSeperator();
+        }
+
+        assertArrayEquals(hashFunction.hash(accumulator.extractBytes()),
+                fiatShamirForVerifier.getHashForAnnouncementAndAuxData(announcements, auxData, hashFunction));
+    }
+
+    /**
+     * Checks that proofs and their messages survive the binary encoding and that truncated encodings are rejected.
+     */
+    @Test
+    public void testBinaryProofEncoding() {
+        FiatShamirProof proof = fiatShamirForProver.prove(new ByteArrayImplementation("Test".getBytes()));
+        ProtocolMessageCodec codec = new ProtocolMessageCodec(protocolForVerifier);
+
+        byte[] encoded = codec.encodeProof(proof);
+        FiatShamirProof decoded = codec.decodeProof(encoded);
+        assertEquals(proof, decoded);
+        assertTrue(fiatShamirForVerifier.verify(decoded));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decodeProof(Arrays.copyOf(encoded, encoded.length - 1)));
+
+        // The generic encoding of representations round-trips as well
+        assertEquals(proof.getRepresentation(),
+                BinaryRepresentationCodec.decode(BinaryRepresentationCodec.encode(proof.getRepresentation())));
+    }
+
+    /**
+     * Checks that malformed and truncated encodings are rejected with an {@link IllegalArgumentException}.
+     */
+    @Test
+    public void testMalformedBinaryEncoding() {
+        ProtocolMessageCodec codec = new ProtocolMessageCodec(protocolForVerifier);
+        byte[] encoded = codec.encodeProof(fiatShamirForProver.prove(new ByteArrayImplementation("Test".getBytes())));
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IllegalArgumentException.class, () -> codec.decodeProof(truncated));
+            assertThrows(IllegalArgumentException.class,
+                    () -> FiatShamirProofView.wrap(codec, ByteBuffer.wrap(truncated)));
+        }
+
+        // lists nested far deeper than the maximal depth must not overflow the stack
+        int depth = 100000;
+        ByteBuffer nested = ByteBuffer.allocate(5 * depth + 1);
+        for (int i = 0; i < depth; i++) {
+            nested.put((byte) 5).putInt(1);
+        }
+        nested.put((byte) 0);
+        assertThrows(IllegalArgumentException.class, () -> BinaryRepresentationCodec.decode(nested.array()));
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryRepresentationCodec.skip(ByteBuffer.wrap(nested.array())));
+
+        // unknown tag, negative and too large lengths
+        assertThrows(IllegalArgumentException.class, () -> BinaryRepresentationCodec.decode(new byte[]{42}));
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryRepresentationCodec.decode(new byte[]{3, -1, -1, -1, -1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryRepresentationCodec.decode(new byte[]{5, 0, 0, 0, 2, 0}));
+    }
+
+    /**
+     * Checks that encoded proofs are accepted via a view of their bytes, that the view hashes the encoded
+     * announcements and that malformed proofs are rejected when the view is created.
+     */
+    @Test
+    public void testEncodedProofView() {
+        ProtocolMessageCodec proverCodec = new ProtocolMessageCodec(protocolForProver);
+        ProtocolMessageCodec verifierCodec = new ProtocolMessageCodec(protocolForVerifier);
+        byte[] encoded = fiatShamirForProver.proveEncoded(proverCodec, new ByteArrayImplementation("Test".getBytes()));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length + 3);
+        buffer.put(new byte[3]).put(encoded);
+        buffer.position(3);
+        FiatShamirProofView view = FiatShamirProofView.wrap(verifierCodec, buffer);
+        assertEquals(3, buffer.position());
+        assertTrue(fiatShamirForVerifier.verify(view));
+
+        // Different auxiliary data leads to a different challenge
+        ByteBuffer announcementBytes = view.getAnnouncementBytes();
+        byte[] announcements = new byte[announcementBytes.remaining()];
+        announcementBytes.get(announcements);
+        byte[] otherAuxData = verifierCodec.encodeProof(announcements, new byte[][]{"Other".getBytes()},
+                view.getResponses());
+        assertFalse(fiatShamirForVerifier.verify(FiatShamirProofView.wrap(verifierCodec,
+                ByteBuffer.wrap(otherAuxData))));
+
+        assertThrows(IllegalArgumentException.class, () -> FiatShamirProofView.wrap(verifierCodec,
+                ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length - 1))));
+        assertThrows(IllegalArgumentException.class, () -> FiatShamirProofView.wrap(verifierCodec,
+                ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length + 1))));
+    }
+}
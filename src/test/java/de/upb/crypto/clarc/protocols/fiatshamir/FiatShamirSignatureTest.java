@@ -22,6 +22,8 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -194,4 +196,41 @@ public class FiatShamirSignatureTest {
         signature = fsScheme.sign(mtpWrongPlainText, signingKey);
         assertFalse(fsScheme.verify(mtpPlainText, signature, verificationKey));
     }
+
+    /**
+     * Checks that repeated verifications under the same (or an equal, restored) key give consistent results, i.e. that
+     * reusing the cached verifier does not change the outcome.
+     */
+    @Test
+    public void testRepeatedVerification() {
+        FiatShamirSignature signature = fsScheme.sign(messageBlock, signingKey);
+        FiatShamirVerificationKey restoredKey = fsScheme.getVerificationKey(verificationKey.getRepresentation());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(fsScheme.verify(messageBlock, signature, verificationKey));
+            assertTrue(fsScheme.verify(messageBlock, signature, restoredKey));
+            assertFalse(fsScheme.verify(wrongMessageBlock, signature, verificationKey));
+            assertFalse(fsScheme.verify(messageBlock, signature, falseVerificationKey));
+        }
+    }
+
+    /**
+     * Checks that batch signing returns valid signatures for the messages in the given order.
+     */
+    @Test
+    public void testSignBatch() {
+        List<MessageBlock> messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            messages.add(new MessageBlock(new RingElementPlainText[]{
+                    new RingElementPlainText(zp.getUniformlyRandomElement())
+            }));
+        }
+
+        List<FiatShamirSignature> signatures = fsScheme.signBatch(messages, signingKey);
+        assertEquals(messages.size(), signatures.size());
+        for (int i = 0; i < messages.size(); i++) {
+            assertTrue(fsScheme.verify(messages.get(i), signatures.get(i), verificationKey));
+            assertFalse(fsScheme.verify(messages.get((i + 1) % messages.size()), signatures.get(i),
+                    verificationKey));
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package de.upb.crypto.clarc.protocols.generalizedschnorrprotocol;
+
+import de.upb.crypto.math.interfaces.structures.Group;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.Zp;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FixedBasePrecomputationCacheTest {
+    private Group group;
+    private Zp zp;
+
+    @BeforeAll
+    public void setUp() {
+        GenSchnorrTestdataProvider provider = new GenSchnorrTestdataProvider();
+        group = provider.generateGenSchnorrGroups()[0];
+        zp = provider.generateGenSchnorrZPGroup(group);
+    }
+
+    @Test
+    public void testPowMatchesExponentiation() {
+        FixedBasePrecomputationCache cache = new FixedBasePrecomputationCache();
+        GroupElement base = group.getUniformlyRandomNonNeutral();
+        assertTrue(cache.precompute(base));
+        FixedBasePrecomputationCache.FixedBaseTable table = cache.getTable(base);
+        assertNotNull(table);
+        assertSame(table, cache.getTable(base));
+
+        for (int i = 0; i < 10; i++) {
+            Zp.ZpElement exponent = zp.getUniformlyRandomElement();
+            assertEquals(base.pow(exponent), table.pow(exponent.getInteger()));
+            assertEquals(base.pow(exponent), table.powFixedOperationCount(exponent.getInteger()));
+        }
+        assertTrue(table.pow(zp.getZeroElement().getInteger()).isNeutralElement());
+        assertTrue(table.powFixedOperationCount(zp.getZeroElement().getInteger()).isNeutralElement());
+    }
+
+    @Test
+    public void testLazyTables() {
+        FixedBasePrecomputationCache cache = new FixedBasePrecomputationCache();
+        GroupElement base = group.getUniformlyRandomNonNeutral();
+        for (int i = 1; i < cache.getBuildThreshold(); i++) {
+            assertNull(cache.getTable(base));
+        }
+        assertEquals(0, cache.getNumberOfTables());
+
+        FixedBasePrecomputationCache.FixedBaseTable table = cache.getTable(base);
+        assertNotNull(table);
+        assertSame(table, cache.getTable(base));
+        assertEquals(1, cache.getNumberOfTables());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        FixedBasePrecomputationCache cache = new FixedBasePrecomputationCache();
+        GroupElement first = group.getUniformlyRandomNonNeutral();
+        GroupElement second = group.getUniformlyRandomNonNeutral();
+        GroupElement third = group.getUniformlyRandomNonNeutral();
+
+        cache.precompute(first);
+        FixedBasePrecomputationCache.FixedBaseTable firstTable = cache.getTable(first);
+        long tableSize = cache.getUsedMemory();
+        cache.precompute(second);
+        cache.setMemoryBudget(2 * tableSize);
+
+        // Accessing first makes second the least recently used table
+        cache.getTable(first);
+        cache.precompute(third);
+        assertEquals(2, cache.getNumberOfTables());
+        assertEquals(2 * tableSize, cache.getUsedMemory());
+        assertSame(firstTable, cache.getTable(first));
+
+        // Tables exceeding the budget are not cached at all
+        cache.setMemoryBudget(tableSize - 1);
+        assertEquals(0, cache.getNumberOfTables());
+        assertFalse(cache.precompute(first));
+    }
+}
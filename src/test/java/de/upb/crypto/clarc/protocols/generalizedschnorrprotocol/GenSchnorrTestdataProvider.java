@@ -17,9 +17,18 @@ import java.util.HashMap;
 public class GenSchnorrTestdataProvider {
 
     public Group[] generateGenSchnorrGroups() {
+        return generateGenSchnorrGroups(BilinearGroup.Type.TYPE_1, true);
+    }
+
+    /**
+     * @param type      type of the bilinear group whose source groups are used
+     * @param debugMode whether to use the (fast, insecure) debug implementation of the bilinear group
+     * @return the source groups G_1 and G_2 of a bilinear group
+     */
+    public Group[] generateGenSchnorrGroups(BilinearGroup.Type type, boolean debugMode) {
         BilinearGroupFactory baseFactory = new BilinearGroupFactory(260);
-        baseFactory.setRequirements(BilinearGroup.Type.TYPE_1);
-        baseFactory.setDebugMode(true);
+        baseFactory.setRequirements(type);
+        baseFactory.setDebugMode(debugMode);
         BilinearMap bilinearMap = baseFactory.createBilinearGroup().getBilinearMap();
 
         return new Group[]{
@@ -1,6 +1,11 @@
 package de.upb.crypto.clarc.protocols.generalizedschnorrprotocol;
 
 import de.upb.crypto.clarc.protocols.InteractiveThreeWayAoKTester;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.clarc.protocols.simulator.SigmaProtocolTranscript;
+import de.upb.crypto.clarc.protocols.simulator.Transcript;
 import de.upb.crypto.math.interfaces.structures.Group;
 import de.upb.crypto.math.structures.zn.Zp;
 import org.junit.jupiter.api.BeforeAll;
@@ -8,8 +13,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class GeneralizedSchnorrTest {
@@ -66,4 +76,131 @@ public class GeneralizedSchnorrTest {
     public void recreateTest() {
         InteractiveThreeWayAoKTester.recreateTest(protocolProver, protocolVerifier);
     }
+
+    /**
+     * Checks that a batch of valid transcripts is accepted, and that a batch containing an invalid transcript is
+     * rejected with the invalid transcript being pinpointed.
+     */
+    @Test
+    public void testBatchVerification() {
+        List<SigmaProtocolTranscript> transcripts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Announcement[] a = protocolProver.generateAnnouncements();
+            Challenge c = protocolVerifier.chooseChallenge();
+            transcripts.add(new SigmaProtocolTranscript(a, c, protocolProver.generateResponses(c), protocolProver));
+        }
+        assertTrue(protocolVerifier.verifyBatch(transcripts));
+        assertEquals(Collections.emptyList(), protocolVerifier.findInvalidTranscripts(transcripts));
+
+        // replace the challenge of the fourth transcript
+        SigmaProtocolTranscript valid = transcripts.get(3);
+        Challenge otherChallenge;
+        do {
+            otherChallenge = protocolVerifier.chooseChallenge();
+        } while (otherChallenge.equals(valid.getChallenge()));
+        transcripts.set(3, new SigmaProtocolTranscript(valid.getAnnouncements(), otherChallenge,
+                valid.getResponses(), protocolProver));
+        assertFalse(protocolVerifier.verifyBatch(transcripts));
+        assertEquals(Collections.singletonList(3), protocolVerifier.findInvalidTranscripts(transcripts));
+    }
+
+    /**
+     * Checks that the proof plan is compiled once, contains every variable of the problems and is recompiled when the
+     * problems change.
+     */
+    @Test
+    public void testProofPlan() {
+        GeneralizedSchnorrProtocol protocol = new GeneralizedSchnorrProtocol(protocolProver.getProblems(),
+                null, (GeneralizedSchnorrPublicParameter) protocolProver.getPublicParameters());
+        GeneralizedSchnorrProofPlan plan = protocol.getProofPlan();
+        assertSame(plan, protocol.getProofPlan());
+        assertEquals(m, plan.getNumberOfEquations());
+        assertEquals(protocol.getVariables().size(), plan.getNumberOfVariables());
+        for (int i = 0; i < plan.getNumberOfVariables(); i++) {
+            assertEquals(i, plan.indexOf(plan.getVariableName(i)));
+        }
+
+        protocol.setProblems(secondProtocolProver.getProblems());
+        assertNotSame(plan, protocol.getProofPlan());
+    }
+
+    /**
+     * Checks that announcements taken from a pool yield accepting transcripts and that a precomputed announcement can
+     * only be used once.
+     */
+    @Test
+    public void testAnnouncementPool() {
+        try (GeneralizedSchnorrAnnouncementPool pool = new GeneralizedSchnorrAnnouncementPool(protocolProver, 4, 2)) {
+            protocolProver.setAnnouncementPool(pool);
+            for (int i = 0; i < 6; i++) {
+                Announcement[] announcements = protocolProver.generateAnnouncements();
+                Challenge challenge = protocolVerifier.chooseChallenge();
+                Response[] responses = protocolProver.generateResponses(challenge);
+                assertTrue(protocolVerifier.verify(announcements, challenge, responses));
+            }
+            assertTrue(pool.size() <= pool.getCapacity());
+
+            GeneralizedSchnorrPrecomputedAnnouncement precomputed = pool.take();
+            protocolProver.generateAnnouncements(precomputed);
+            assertTrue(precomputed.isUsed());
+            assertThrows(IllegalStateException.class, () -> protocolProver.generateAnnouncements(precomputed));
+        } finally {
+            protocolProver.setAnnouncementPool(null);
+        }
+    }
+
+    /**
+     * Checks that transcripts computed on a user-supplied executor are accepted.
+     */
+    @Test
+    public void testExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            protocolProver.setExecutor(executor);
+            GeneralizedSchnorrProtocol verifier = new GeneralizedSchnorrProtocol(protocolProver.getProblems(),
+                    null, (GeneralizedSchnorrPublicParameter) protocolProver.getPublicParameters());
+            verifier.setExecutor(executor);
+
+            Announcement[] announcements = protocolProver.generateAnnouncements();
+            Challenge challenge = verifier.chooseChallenge();
+            Response[] responses = protocolProver.generateResponses(challenge);
+            assertTrue(verifier.verify(announcements, challenge, responses));
+            assertTrue(protocolProver.isFulfilled());
+
+            GeneralizedSchnorrSimulator simulator = (GeneralizedSchnorrSimulator) verifier.getSimulator();
+            simulator.setExecutor(executor);
+            Transcript transcript = simulator.simulate(challenge);
+            assertTrue(verifier.verify(transcript.getAnnouncements(), transcript.getChallenge(),
+                    transcript.getResponses()));
+        } finally {
+            protocolProver.setExecutor(null);
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Checks that compact responses are accepted, survive serialization and contain the responses in the order of the
+     * proof plan.
+     */
+    @Test
+    public void testCompactResponses() {
+        Announcement[] announcements = protocolProver.generateAnnouncements();
+        Challenge challenge = protocolVerifier.chooseChallenge();
+        GeneralizedSchnorrResponseVector vector = protocolProver.generateResponseVector(challenge);
+        assertEquals(protocolVerifier.getProofPlan().getNumberOfVariables(), vector.size());
+        Response[] responses = new Response[]{vector};
+        assertTrue(protocolVerifier.verify(announcements, challenge, responses));
+
+        Response restored = protocolVerifier.recreateResponse(vector.getRepresentation());
+        assertEquals(vector, restored);
+        assertEquals(vector, GeneralizedSchnorrProtocol.recreateResponseVector(vector.getRepresentation(), zp));
+        assertTrue(protocolVerifier.verify(announcements, challenge, new Response[]{restored}));
+
+        List<Transcript> transcripts = new ArrayList<>();
+        transcripts.add(new SigmaProtocolTranscript(announcements, challenge, responses, protocolProver));
+        Announcement[] otherAnnouncements = protocolProver.generateAnnouncements();
+        transcripts.add(new SigmaProtocolTranscript(otherAnnouncements, challenge,
+                protocolProver.generateResponses(challenge), protocolProver));
+        assertTrue(protocolVerifier.verifyBatch(transcripts));
+    }
 }
@@ -1,9 +1,12 @@
 package de.upb.crypto.clarc.protocols.serialization.classes;
 
+import de.upb.crypto.clarc.protocols.expressions.IndexedGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.IndexedZnElementPolicyFacts;
 import de.upb.crypto.clarc.protocols.expressions.SimpleGroupElementPolicyFacts;
 import de.upb.crypto.clarc.protocols.expressions.SimpleZnElementPolicyFacts;
 import de.upb.crypto.clarc.protocols.expressions.SuperGroupElementPolicyFacts;
 import de.upb.crypto.clarc.protocols.expressions.SuperZnElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.VariableSlots;
 import de.upb.crypto.clarc.protocols.expressions.arith.*;
 import de.upb.crypto.clarc.protocols.expressions.collectionexpressions.IntervalZnExpression;
 import de.upb.crypto.clarc.protocols.expressions.comparison.*;
@@ -387,6 +390,14 @@ public class ExpressionTestdataProvider {
     }
 
 
+    public IndexedZnElementPolicyFacts getIndexedZnFacts() {
+        return new IndexedZnElementPolicyFacts(VariableSlots.of(valueMapZp.keySet()), valueMapZp);
+    }
+
+    public IndexedGroupElementPolicyFacts getIndexedGroupFacts() {
+        return new IndexedGroupElementPolicyFacts(VariableSlots.of(valueMapGroup.keySet()), valueMapGroup);
+    }
+
     public Zp.ZpElement[] generateRandomArray(Zp zp, int length) {
         return Stream.generate(zp::getUniformlyRandomUnit).limit(length).toArray(Zp.ZpElement[]::new);
     }
@@ -1,5 +1,7 @@
 package de.upb.crypto.clarc.protocols.serialization.classes;
 
+import de.upb.crypto.clarc.protocols.expressions.IndexedGroupElementPolicyFacts;
+import de.upb.crypto.clarc.protocols.expressions.IndexedZnElementPolicyFacts;
 import de.upb.crypto.clarc.protocols.expressions.SimpleGroupElementPolicyFacts;
 import de.upb.crypto.clarc.protocols.expressions.SimpleZnElementPolicyFacts;
 import de.upb.crypto.clarc.protocols.expressions.SuperGroupElementPolicyFacts;
@@ -44,6 +46,8 @@ public class ExpressionsParams {
         toReturn.add(new StandaloneTestParams(SimpleZnElementPolicyFacts.class, provider.getZnFacts()));
         toReturn.add(new StandaloneTestParams(SuperGroupElementPolicyFacts.class, provider.getSuperGroupFacts()));
         toReturn.add(new StandaloneTestParams(SuperZnElementPolicyFacts.class, provider.getSuperZnFacts()));
+        toReturn.add(new StandaloneTestParams(IndexedGroupElementPolicyFacts.class, provider.getIndexedGroupFacts()));
+        toReturn.add(new StandaloneTestParams(IndexedZnElementPolicyFacts.class, provider.getIndexedZnFacts()));
         toReturn.add(new StandaloneTestParams(GroupElementEqualityExpression.class, provider
                 .getGroupElementEqualityExpression()));
         toReturn.add(new StandaloneTestParams(ZnElementEqualityExpression.class, provider